@@ -0,0 +1,38 @@
+package de.borisskert.springjwt.authentication.filter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BearerTokenParserBenchmark {
+
+    private final String validHeader = "Bearer eyJ0eXAiOiJKV1QiLCJhbGciOiJIUzUxMiJ9"
+            + ".eyJzdWIiOiJhZG1pbiIsInJvbGVzIjpbIkFETUlOIiwiVVNFUiJdfQ"
+            + ".c2lnbmF0dXJlLW9mLXRoZS1iZW5jaG1hcmstdG9rZW4";
+
+    private final String malformedHeader = "Bearer not-a-token";
+
+    @Benchmark
+    public String parseValidHeader() {
+        return BearerTokenParser.parse(validHeader);
+    }
+
+    @Benchmark
+    public String parseMalformedHeader() {
+        return BearerTokenParser.parse(malformedHeader);
+    }
+}
@@ -0,0 +1,40 @@
+package de.borisskert.springjwt.authentication.jwt;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.Authentication;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Run with the gc profiler (default of the benchmark profile) to see the allocations per authentication
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtAuthenticationBenchmark {
+
+    private final List<String> knownRoles = List.of("ADMIN", "USER");
+    private final List<String> unknownRoles = List.of("AUDITOR", "USER");
+
+    @Benchmark
+    public Authentication ofKnownRoles() {
+        return JwtAuthentication.of("admin", knownRoles);
+    }
+
+    @Benchmark
+    public Authentication ofUnknownRoles() {
+        return JwtAuthentication.of("admin", unknownRoles);
+    }
+}
@@ -0,0 +1,141 @@
+package de.borisskert.springjwt.authentication.jwt;
+
+import de.borisskert.springjwt.authentication.SecurityProperties;
+import de.borisskert.springjwt.authentication.SecurityProperties.SigningAlgorithm;
+import de.borisskert.springjwt.authentication.revocation.RevokedTokens;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Clock;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class JwtTokenServiceBenchmark {
+
+    @Param({"HS512", "RS256", "ES256"})
+    private SigningAlgorithm algorithm;
+
+    private Path keyDirectory;
+    private UserDetails userDetails;
+    private JwtTokenService cachingService;
+    private JwtTokenService uncachedService;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        keyDirectory = Files.createTempDirectory("jwt-benchmark");
+        userDetails = User.withUsername("admin")
+                .password("n/a")
+                .authorities("ADMIN", "USER")
+                .build();
+
+        cachingService = createService(10_000L);
+        uncachedService = createService(0L);
+
+        token = cachingService.createSignedTokenFor(userDetails);
+    }
+
+    @TearDown(Level.Trial)
+    public void cleanup() throws IOException {
+        try (Stream<Path> files = Files.walk(keyDirectory)) {
+            files.sorted(Comparator.reverseOrder())
+                    .forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public String createSignedToken() {
+        return cachingService.createSignedTokenFor(userDetails);
+    }
+
+    @Benchmark
+    public Optional<Authentication> authenticateCachedToken() {
+        return cachingService.tryToAuthenticate(token);
+    }
+
+    @Benchmark
+    public Optional<Authentication> authenticateUncachedToken() {
+        return uncachedService.tryToAuthenticate(token);
+    }
+
+    private JwtTokenService createService(long tokenCacheSize) throws Exception {
+        SecurityProperties properties = new SecurityProperties();
+        properties.setIssuer("http://localhost:8080");
+        properties.setAudience("http://localhost:8080");
+        properties.setAlgorithm(algorithm);
+        properties.setTokenCacheSize(tokenCacheSize);
+        properties.setExpiration(TimeUnit.HOURS.toMillis(1));
+
+        if (algorithm == SigningAlgorithm.HS512) {
+            properties.setSecret("my benchmark secret");
+        } else {
+            writeKeyPair(properties);
+        }
+
+        Clock clock = Clock.systemUTC();
+
+        return new JwtTokenService(properties, clock, new RevokedTokens(properties, clock), new SimpleMeterRegistry());
+    }
+
+    private void writeKeyPair(SecurityProperties properties) throws IOException, GeneralSecurityException {
+        Path publicKey = keyDirectory.resolve(algorithm + "-public.pem");
+        Path privateKey = keyDirectory.resolve(algorithm + "-private.pem");
+
+        if (Files.notExists(publicKey)) {
+            KeyPairGenerator generator;
+
+            if (algorithm == SigningAlgorithm.RS256) {
+                generator = KeyPairGenerator.getInstance("RSA");
+                generator.initialize(2048);
+            } else {
+                generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+            }
+
+            KeyPair keyPair = generator.generateKeyPair();
+
+            Files.writeString(publicKey, toPem("PUBLIC KEY", keyPair.getPublic().getEncoded()));
+            Files.writeString(privateKey, toPem("PRIVATE KEY", keyPair.getPrivate().getEncoded()));
+        }
+
+        properties.setPublicKeyLocation(publicKey.toString());
+        properties.setPrivateKeyLocation(privateKey.toString());
+    }
+
+    private static String toPem(String type, byte[] encoded) {
+        return "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder().encodeToString(encoded)
+                + "\n-----END " + type + "-----\n";
+    }
+}
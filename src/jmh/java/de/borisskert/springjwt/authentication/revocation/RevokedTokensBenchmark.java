@@ -0,0 +1,59 @@
+package de.borisskert.springjwt.authentication.revocation;
+
+import de.borisskert.springjwt.authentication.SecurityProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The overhead of the revocation check on the authorization path, with a denylist filled to its expected size
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RevokedTokensBenchmark {
+
+    private RevokedTokens revokedTokens;
+    private String revokedTokenId;
+    private String validTokenId;
+
+    @Setup
+    public void setup() {
+        SecurityProperties properties = new SecurityProperties();
+        revokedTokens = new RevokedTokens(properties, Clock.systemUTC());
+
+        Instant expiresAt = Instant.now().plusSeconds(3600);
+
+        for (int index = 0; index < properties.getRevocation().getExpectedTokens(); index++) {
+            revokedTokenId = UUID.randomUUID().toString();
+            revokedTokens.add(revokedTokenId, expiresAt);
+        }
+
+        validTokenId = UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public boolean checkValidToken() {
+        return revokedTokens.isRevoked(validTokenId);
+    }
+
+    @Benchmark
+    public boolean checkRevokedToken() {
+        return revokedTokens.isRevoked(revokedTokenId);
+    }
+}
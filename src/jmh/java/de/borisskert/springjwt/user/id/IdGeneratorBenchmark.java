@@ -0,0 +1,68 @@
+package de.borisskert.springjwt.user.id;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creating ids under contention, compared to the shared SecureRandom of {@link UUID#randomUUID()}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class IdGeneratorBenchmark {
+
+    @Param({"JDK", "RANDOM", "TIME_ORDERED"})
+    private String generation;
+
+    private IdGenerator generator;
+
+    @Setup
+    public void setup() throws Exception {
+        if ("JDK".equals(generation)) {
+            generator = () -> UUID.randomUUID().toString();
+        } else {
+            generator = IdGenerators.create(IdGeneration.valueOf(generation), Clock.systemUTC());
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String threads1() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String threads4() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public String threads16() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public String threads64() {
+        return generator.nextId();
+    }
+}
@@ -0,0 +1,41 @@
+package de.borisskert.springjwt.user.persistence;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hydrating and persisting the roles of a user
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RoleMaskConverterBenchmark {
+
+    private final RoleMaskConverter converter = new RoleMaskConverter();
+    private final Collection<String> roles = List.of("ADMIN", "USER");
+    private final Integer mask = converter.convertToDatabaseColumn(roles);
+
+    @Benchmark
+    public Collection<String> convertToEntityAttribute() {
+        return converter.convertToEntityAttribute(mask);
+    }
+
+    @Benchmark
+    public Integer convertToDatabaseColumn() {
+        return converter.convertToDatabaseColumn(roles);
+    }
+}
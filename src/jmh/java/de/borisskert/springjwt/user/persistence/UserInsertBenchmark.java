@@ -0,0 +1,90 @@
+package de.borisskert.springjwt.user.persistence;
+
+import de.borisskert.springjwt.Application;
+import de.borisskert.springjwt.user.id.IdGeneration;
+import de.borisskert.springjwt.user.id.IdGenerator;
+import de.borisskert.springjwt.user.id.IdGenerators;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserting users with random versus time-ordered ids into a growing user table. Runs against the 'h2fs' profile by
+ * default; a local Postgres is measured by the JMH option '-p profile=local'.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class UserInsertBenchmark {
+
+    @Param({"h2fs"})
+    private String profile;
+
+    @Param({"RANDOM", "TIME_ORDERED"})
+    private IdGeneration ids;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository repository;
+    private IdGenerator idGenerator;
+
+    private String usernamePrefix;
+    private long userCount;
+
+    @Setup
+    public void setup() throws Exception {
+        context = new SpringApplicationBuilder(Application.class)
+                .profiles(profile)
+                .properties(
+                        "server.port=0",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN"
+                )
+                .run();
+
+        repository = context.getBean(UserRepository.class);
+
+        idGenerator = IdGenerators.create(ids, Clock.systemUTC());
+
+        // the h2fs and local databases outlive the benchmark, so usernames must not collide with former runs
+        usernamePrefix = Long.toString(ThreadLocalRandom.current().nextLong(36L * 36 * 36, 36L * 36 * 36 * 36), 36);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        context.close();
+    }
+
+    @Benchmark
+    public UserEntity insert() {
+        String username = usernamePrefix + Long.toString(userCount++, 36);
+
+        UserEntity entity = new UserEntity();
+        entity.setId(idGenerator.nextId());
+        entity.setUsername(username);
+        entity.setEmail(username + "@benchmark.local");
+        entity.setDateOfBirth(LocalDate.of(1990, 10, 3));
+        entity.setRoles(List.of("USER"));
+
+        return repository.saveAndFlush(entity);
+    }
+}
@@ -0,0 +1,48 @@
+package de.borisskert.springjwt.vaidation;
+
+import de.borisskert.springjwt.authentication.PasswordService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validating sign-up passwords and generating the passwords of initial admin accounts
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RawPasswordValidatorBenchmark {
+
+    private final RawPasswordValidator validator = new RawPasswordValidator();
+    private final PasswordService passwordService = new PasswordService(new SecureRandom(), validator);
+
+    private final String validPassword = "my-Benchmark-passw0rd";
+    private final String invalidPassword = "my benchmark password without digits";
+
+    @Benchmark
+    public boolean validateValidPassword() {
+        return validator.isValid(validPassword, null);
+    }
+
+    @Benchmark
+    public boolean validateInvalidPassword() {
+        return validator.isValid(invalidPassword, null);
+    }
+
+    @Benchmark
+    public String generatePassword() {
+        return passwordService.generate();
+    }
+}
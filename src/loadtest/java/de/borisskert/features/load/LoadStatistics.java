@@ -0,0 +1,105 @@
+package de.borisskert.features.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and errors per request, recorded concurrently by all virtual users
+ */
+class LoadStatistics {
+    private static final long HIGHEST_TRACKABLE_LATENCY = TimeUnit.MINUTES.toNanos(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Map<String, Histogram> latencies = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    private volatile boolean recording;
+
+    public void startRecording() {
+        recording = true;
+    }
+
+    public void stopRecording() {
+        recording = false;
+    }
+
+    public void recordSuccess(String request, long latencyInNanos) {
+        if (recording) {
+            latencies.computeIfAbsent(request, LoadStatistics::createHistogram)
+                    .recordValue(Math.min(latencyInNanos, HIGHEST_TRACKABLE_LATENCY));
+        }
+    }
+
+    public void recordError(String request) {
+        if (recording) {
+            errors.computeIfAbsent(request, key -> new LongAdder())
+                    .increment();
+        }
+    }
+
+    public long getCount(String request) {
+        Histogram histogram = latencies.get(request);
+        return histogram == null ? 0L : histogram.getTotalCount();
+    }
+
+    public long getErrors(String request) {
+        LongAdder adder = errors.get(request);
+        return adder == null ? 0L : adder.sum();
+    }
+
+    public double getErrorRate() {
+        long errorCount = errors.values()
+                .stream()
+                .mapToLong(LongAdder::sum)
+                .sum();
+
+        long totalCount = latencies.values()
+                .stream()
+                .mapToLong(Histogram::getTotalCount)
+                .sum() + errorCount;
+
+        return totalCount == 0L ? 0.0 : (double) errorCount / totalCount;
+    }
+
+    /**
+     * Summarizes count, errors, throughput (per second) and latencies (milliseconds) of each request
+     */
+    public Map<String, Map<String, Object>> summarize(Duration elapsed) {
+        double seconds = elapsed.toNanos() / 1_000_000_000.0;
+        Map<String, Map<String, Object>> summary = new LinkedHashMap<>();
+
+        latencies.keySet()
+                .stream()
+                .sorted()
+                .forEach(request -> {
+                    Histogram histogram = latencies.get(request);
+                    Map<String, Object> values = new LinkedHashMap<>();
+
+                    values.put("count", histogram.getTotalCount());
+                    values.put("errors", getErrors(request));
+                    values.put("throughput", histogram.getTotalCount() / seconds);
+                    values.put("p50", toMillis(histogram.getValueAtPercentile(50.0)));
+                    values.put("p99", toMillis(histogram.getValueAtPercentile(99.0)));
+                    values.put("max", toMillis(histogram.getMaxValue()));
+
+                    summary.put(request, values);
+                });
+
+        return summary;
+    }
+
+    private static Histogram createHistogram(String request) {
+        return new ConcurrentHistogram(HIGHEST_TRACKABLE_LATENCY, SIGNIFICANT_DIGITS);
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
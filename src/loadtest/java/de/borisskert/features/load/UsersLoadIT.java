@@ -0,0 +1,122 @@
+package de.borisskert.features.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.borisskert.springjwt.Application;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+
+import java.io.File;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+/**
+ * Measures latencies and throughput of the application under concurrent virtual users, configured by the system
+ * properties of the 'loadtest' maven profile
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("IT")
+@ContextConfiguration(classes = Application.class)
+public class UsersLoadIT {
+
+    private final int users = Integer.getInteger("loadtest.users", 8);
+    private final Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT10S"));
+    private final Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT30S"));
+    private final int requestsPerLogin = Integer.getInteger("loadtest.requests-per-login", 10);
+    private final double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.0"));
+    private final String result = System.getProperty("loadtest.result", "target/loadtest-result.json");
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    private LoadStatistics statistics;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        statistics = new LoadStatistics();
+
+        // the default connection pool only allows two concurrent connections per route
+        restTemplate.getRestTemplate().setRequestFactory(
+                new HttpComponentsClientHttpRequestFactory(
+                        HttpClients.custom()
+                                .setMaxConnPerRoute(users)
+                                .setMaxConnTotal(users)
+                                .build()
+                )
+        );
+    }
+
+    @Test
+    public void shouldSignUpLoginAndGetMe() throws Exception {
+        Instant deadline = Instant.now().plus(warmup).plus(duration);
+        ExecutorService executor = Executors.newFixedThreadPool(users);
+
+        for (int i = 0; i < users; i++) {
+            executor.execute(new VirtualUser(restTemplate, mapper, statistics, requestsPerLogin, deadline));
+        }
+
+        Thread.sleep(warmup.toMillis());
+        statistics.startRecording();
+        long start = System.nanoTime();
+
+        Thread.sleep(duration.toMillis());
+        statistics.stopRecording();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        report(elapsed);
+
+        assertThat(statistics.getCount(VirtualUser.SIGN_UP), is(greaterThan(0L)));
+        assertThat(statistics.getCount(VirtualUser.LOGIN), is(greaterThan(0L)));
+        assertThat(statistics.getCount(VirtualUser.GET_ME), is(greaterThan(0L)));
+        assertThat(statistics.getErrorRate(), is(lessThanOrEqualTo(maxErrorRate)));
+    }
+
+    private void report(Duration elapsed) throws Exception {
+        Map<String, Map<String, Object>> summary = statistics.summarize(elapsed);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("users", users);
+        report.put("duration", elapsed.toString());
+        report.put("requestsPerLogin", requestsPerLogin);
+        report.put("requests", summary);
+
+        File resultFile = new File(result);
+        resultFile.getParentFile().mkdirs();
+        mapper.writerWithDefaultPrettyPrinter().writeValue(resultFile, report);
+
+        System.out.printf("%n%-10s %10s %8s %12s %10s %10s %10s%n", "Request", "Count", "Errors", "Throughput", "p50 [ms]", "p99 [ms]", "max [ms]");
+        summary.forEach((request, values) -> System.out.printf(
+                "%-10s %10d %8d %10.1f/s %10.2f %10.2f %10.2f%n",
+                request,
+                values.get("count"),
+                values.get("errors"),
+                values.get("throughput"),
+                values.get("p50"),
+                values.get("p99"),
+                values.get("max")
+        ));
+        System.out.printf("Results written to %s%n%n", resultFile.getAbsolutePath());
+    }
+}
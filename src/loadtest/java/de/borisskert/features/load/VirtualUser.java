@@ -0,0 +1,105 @@
+package de.borisskert.features.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.borisskert.features.model.Credentials;
+import de.borisskert.features.model.UserWithPassword;
+import de.borisskert.features.world.AuthenticationClient;
+import de.borisskert.features.world.CucumberHttpClient;
+import de.borisskert.features.world.UsersClient;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.http.HttpStatus.CREATED;
+import static org.springframework.http.HttpStatus.OK;
+
+/**
+ * Repeatedly signs up a new user, logs in as this user and asks for itself, just like the cucumber features do. The
+ * clients of the cucumber world keep state between requests, so each virtual user owns its own clients.
+ */
+class VirtualUser implements Runnable {
+    public static final String SIGN_UP = "sign-up";
+    public static final String LOGIN = "login";
+    public static final String GET_ME = "me";
+
+    private static final String PASSWORD = "my_p@ssw0rd";
+    private static final AtomicLong USER_SEQUENCE = new AtomicLong();
+
+    private final CucumberHttpClient httpClient;
+    private final AuthenticationClient authenticationClient;
+    private final UsersClient usersClient;
+
+    private final LoadStatistics statistics;
+    private final int requestsPerLogin;
+    private final Instant deadline;
+
+    VirtualUser(
+            TestRestTemplate restTemplate,
+            ObjectMapper mapper,
+            LoadStatistics statistics,
+            int requestsPerLogin,
+            Instant deadline
+    ) {
+        this.httpClient = new CucumberHttpClient(restTemplate, mapper);
+        this.authenticationClient = new AuthenticationClient(httpClient);
+        this.usersClient = new UsersClient(httpClient, authenticationClient);
+        this.statistics = statistics;
+        this.requestsPerLogin = requestsPerLogin;
+        this.deadline = deadline;
+    }
+
+    @Override
+    public void run() {
+        while (Instant.now().isBefore(deadline)) {
+            String username = String.format("load%08x", USER_SEQUENCE.incrementAndGet());
+
+            boolean signedUp = request(SIGN_UP, CREATED, () -> usersClient.signUp(userToSignUp(username)));
+            if (!signedUp) {
+                continue;
+            }
+
+            boolean loggedIn = request(LOGIN, OK, () -> authenticationClient.login(credentials(username)));
+            if (!loggedIn) {
+                continue;
+            }
+
+            for (int i = 0; i < requestsPerLogin && Instant.now().isBefore(deadline); i++) {
+                request(GET_ME, OK, usersClient::getMe);
+            }
+        }
+    }
+
+    private boolean request(String name, HttpStatus expectedStatus, Runnable request) {
+        long start = System.nanoTime();
+
+        try {
+            request.run();
+            httpClient.verifyLatestStatus(expectedStatus);
+        } catch (AssertionError | RuntimeException e) {
+            statistics.recordError(name);
+            return false;
+        }
+
+        statistics.recordSuccess(name, System.nanoTime() - start);
+        return true;
+    }
+
+    private static UserWithPassword userToSignUp(String username) {
+        return UserWithPassword.from(Map.of(
+                "Username", username,
+                "Email", username + "@fakemail.com",
+                "Day of Birth", "1989-10-18",
+                "Password", PASSWORD
+        ));
+    }
+
+    private static Credentials credentials(String username) {
+        return Credentials.from(Map.of(
+                "Username", username,
+                "Password", PASSWORD
+        ));
+    }
+}
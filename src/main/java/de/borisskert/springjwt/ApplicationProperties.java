@@ -1,9 +1,14 @@
 package de.borisskert.springjwt;
 
+import de.borisskert.springjwt.user.id.IdGeneration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import javax.validation.Valid;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -13,6 +18,15 @@ public class ApplicationProperties {
     @Size(min = 1)
     private List<Credentials> admins = new ArrayList<>();
 
+    @Valid
+    private UserCache userCache = new UserCache();
+
+    @Valid
+    private UserImport userImport = new UserImport();
+
+    @Valid
+    private UserIds userIds = new UserIds();
+
     public List<Credentials> getAdmins() {
         return admins;
     }
@@ -21,6 +35,86 @@ public class ApplicationProperties {
         this.admins = admins;
     }
 
+    public UserCache getUserCache() {
+        return userCache;
+    }
+
+    public void setUserCache(UserCache userCache) {
+        this.userCache = userCache;
+    }
+
+    public UserImport getUserImport() {
+        return userImport;
+    }
+
+    public void setUserImport(UserImport userImport) {
+        this.userImport = userImport;
+    }
+
+    public UserIds getUserIds() {
+        return userIds;
+    }
+
+    public void setUserIds(UserIds userIds) {
+        this.userIds = userIds;
+    }
+
+    public static class UserCache {
+
+        @Min(0)
+        private Long maximumSize = 10_000L;
+
+        @NotNull
+        private Duration timeToLive = Duration.ofMinutes(5);
+
+        public Long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(Long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
+
+    public static class UserImport {
+
+        /**
+         * Number of imported users checked for existing usernames by one query and inserted by one JDBC batch
+         */
+        @Min(1)
+        private Integer batchSize = 500;
+
+        public Integer getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(Integer batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    public static class UserIds {
+
+        @NotNull
+        private IdGeneration generation = IdGeneration.TIME_ORDERED;
+
+        public IdGeneration getGeneration() {
+            return generation;
+        }
+
+        public void setGeneration(IdGeneration generation) {
+            this.generation = generation;
+        }
+    }
+
     public static class Credentials {
 
         @NotEmpty
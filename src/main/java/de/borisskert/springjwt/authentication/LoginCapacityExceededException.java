@@ -0,0 +1,9 @@
+package de.borisskert.springjwt.authentication;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+public class LoginCapacityExceededException extends AuthenticationServiceException {
+    public LoginCapacityExceededException(String message) {
+        super(message);
+    }
+}
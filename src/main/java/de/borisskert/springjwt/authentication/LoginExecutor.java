@@ -0,0 +1,177 @@
+package de.borisskert.springjwt.authentication;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs the CPU-heavy password verification of logins on a dedicated, bounded thread pool, so a login storm cannot
+ * occupy every servlet worker. Logins exceeding the pool and its queue are rejected immediately.
+ */
+@Component
+public class LoginExecutor implements MeterBinder {
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    private final LongAdder verifications = new LongAdder();
+    private final LongAdder verificationNanos = new LongAdder();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    @Autowired
+    public LoginExecutor(SecurityProperties properties) {
+        SecurityProperties.Login login = properties.getLogin();
+
+        this.executor = new ThreadPoolExecutor(
+                login.getThreads(),
+                login.getThreads(),
+                0L,
+                TimeUnit.MILLISECONDS,
+                createQueue(login.getQueueCapacity()),
+                new LoginThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.timeoutMillis = login.getTimeout();
+    }
+
+    public <T> T execute(Supplier<T> verification) {
+        Future<T> future;
+
+        try {
+            future = executor.submit(() -> timed(verification));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new LoginCapacityExceededException("Too many concurrent logins");
+        }
+
+        try {
+            T result = future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            succeeded.increment();
+
+            return result;
+        } catch (ExecutionException e) {
+            failed.increment();
+            throw rethrow(e.getCause());
+        } catch (TimeoutException e) {
+            rejected.increment();
+            future.cancel(true);
+            throw new LoginCapacityExceededException("Login timed out");
+        } catch (InterruptedException e) {
+            rejected.increment();
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new LoginCapacityExceededException("Login interrupted");
+        }
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public long getVerificationCount() {
+        return verifications.sum();
+    }
+
+    public long getTotalVerificationTime(TimeUnit unit) {
+        return unit.convert(verificationNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("login.queue.depth", this, LoginExecutor::getQueueDepth)
+                .description("Logins waiting for a thread")
+                .register(registry);
+        Gauge.builder("login.active", this, LoginExecutor::getActiveCount)
+                .description("Logins being verified")
+                .register(registry);
+
+        FunctionTimer.builder("login.verification", this, LoginExecutor::getVerificationCount,
+                        executor -> executor.getTotalVerificationTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS)
+                .description("Time spent verifying credentials on the login threads")
+                .register(registry);
+
+        bindOutcome(registry, "success", succeeded);
+        bindOutcome(registry, "failure", failed);
+        bindOutcome(registry, "rejected", rejected);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T timed(Supplier<T> verification) {
+        long start = System.nanoTime();
+
+        try {
+            return verification.get();
+        } finally {
+            verificationNanos.add(System.nanoTime() - start);
+            verifications.increment();
+        }
+    }
+
+    private static void bindOutcome(MeterRegistry registry, String outcome, LongAdder count) {
+        FunctionCounter.builder("login.attempts", count, LongAdder::doubleValue)
+                .description("Login attempts by outcome, rejected ones exceeded the login capacity")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+
+        return new IllegalStateException(cause);
+    }
+
+    private static BlockingQueue<Runnable> createQueue(int capacity) {
+        if (capacity == 0) {
+            return new SynchronousQueue<>();
+        }
+
+        return new ArrayBlockingQueue<>(capacity);
+    }
+
+    private static class LoginThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "login-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+
+            return thread;
+        }
+    }
+}
@@ -3,4 +3,5 @@ package de.borisskert.springjwt.authentication;
 public class SecurityConstants {
     public static final String TOKEN_PREFIX = "Bearer ";
     public static final String HEADER_KEY = "Authorization";
+    public static final String REFRESH_TOKEN_HEADER_KEY = "X-Refresh-Token";
 }
@@ -1,23 +1,55 @@
 package de.borisskert.springjwt.authentication;
 
+import de.borisskert.springjwt.authentication.password.PasswordEncoding;
 import org.hibernate.validator.constraints.URL;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
+import javax.validation.Valid;
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 
 @ConfigurationProperties(prefix = "app.security")
 @Validated
 public class SecurityProperties {
 
-    @NotEmpty
+    @NotNull
+    private SigningAlgorithm algorithm = SigningAlgorithm.HS512;
+
     @Size(min = 8)
     private String secret;
 
+    private String publicKeyLocation;
+
+    private String privateKeyLocation;
+
+    /**
+     * A keyring replacing the single key configured by algorithm, secret and key locations
+     */
+    @Valid
+    private Keystore keystore = new Keystore();
+
+    /**
+     * Lifetime of access tokens (milliseconds), kept short since they're verified without any lookup
+     */
+    @Min(1)
+    private Long expiration = 15 * 60 * 1000L;
+
+    /**
+     * Lifetime of refresh tokens (milliseconds)
+     */
     @Min(1)
-    private Long expiration = 10 * 24 * 60 * 60 * 1000L;
+    private Long refreshExpiration = 10 * 24 * 60 * 60 * 1000L;
+
+    /**
+     * The maximum number of verified tokens remembered, 0 disables the cache
+     */
+    @Min(0)
+    private Long tokenCacheSize = 10_000L;
 
     @NotEmpty
     @URL
@@ -26,6 +58,23 @@ public class SecurityProperties {
     @NotEmpty
     private String audience;
 
+    @Valid
+    private Login login = new Login();
+
+    @Valid
+    private Password password = new Password();
+
+    @Valid
+    private Revocation revocation = new Revocation();
+
+    public SigningAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(SigningAlgorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+
     public String getSecret() {
         return secret;
     }
@@ -34,6 +83,51 @@ public class SecurityProperties {
         this.secret = secret;
     }
 
+    public String getPublicKeyLocation() {
+        return publicKeyLocation;
+    }
+
+    public void setPublicKeyLocation(String publicKeyLocation) {
+        this.publicKeyLocation = publicKeyLocation;
+    }
+
+    public String getPrivateKeyLocation() {
+        return privateKeyLocation;
+    }
+
+    public void setPrivateKeyLocation(String privateKeyLocation) {
+        this.privateKeyLocation = privateKeyLocation;
+    }
+
+    public Keystore getKeystore() {
+        return keystore;
+    }
+
+    public void setKeystore(Keystore keystore) {
+        this.keystore = keystore;
+    }
+
+    @AssertTrue(message = "HS512 requires a secret, RS256 and ES256 require at least a public key location")
+    public boolean isKeyMaterialConfigured() {
+        if (keystore.isConfigured()) {
+            return true;
+        }
+
+        if (algorithm == SigningAlgorithm.HS512) {
+            return secret != null && !secret.isEmpty();
+        }
+
+        return publicKeyLocation != null && !publicKeyLocation.isEmpty();
+    }
+
+    /**
+     * Nodes configured with an asymmetric algorithm but without private key are only able to verify tokens
+     */
+    public boolean isVerifyOnly() {
+        return algorithm != SigningAlgorithm.HS512
+                && (privateKeyLocation == null || privateKeyLocation.isEmpty());
+    }
+
     public Long getExpiration() {
         return expiration;
     }
@@ -42,6 +136,22 @@ public class SecurityProperties {
         this.expiration = expiration;
     }
 
+    public Long getRefreshExpiration() {
+        return refreshExpiration;
+    }
+
+    public void setRefreshExpiration(Long refreshExpiration) {
+        this.refreshExpiration = refreshExpiration;
+    }
+
+    public Long getTokenCacheSize() {
+        return tokenCacheSize;
+    }
+
+    public void setTokenCacheSize(Long tokenCacheSize) {
+        this.tokenCacheSize = tokenCacheSize;
+    }
+
     public String getIssuer() {
         return issuer;
     }
@@ -57,4 +167,186 @@ public class SecurityProperties {
     public void setAudience(String audience) {
         this.audience = audience;
     }
+
+    public Login getLogin() {
+        return login;
+    }
+
+    public void setLogin(Login login) {
+        this.login = login;
+    }
+
+    public Password getPassword() {
+        return password;
+    }
+
+    public void setPassword(Password password) {
+        this.password = password;
+    }
+
+    public Revocation getRevocation() {
+        return revocation;
+    }
+
+    public void setRevocation(Revocation revocation) {
+        this.revocation = revocation;
+    }
+
+    public static class Password {
+
+        @NotNull
+        private PasswordEncoding encoding = PasswordEncoding.BCRYPT;
+
+        /**
+         * The BCrypt cost, stored hashes of any other cost are rehashed on login. Respectively the minimum cost when
+         * calibrating, just weaker hashes are rehashed then.
+         */
+        @Min(4)
+        @Max(31)
+        private Integer strength = 10;
+
+        /**
+         * Calibrates the strongest BCrypt cost verifying within this time (milliseconds) at startup, if set. A single
+         * measurement is noisy, so a cluster should rather pin the logged result as strength and leave this unset.
+         */
+        @Min(1)
+        private Long targetVerifyTime;
+
+        public PasswordEncoding getEncoding() {
+            return encoding;
+        }
+
+        public void setEncoding(PasswordEncoding encoding) {
+            this.encoding = encoding;
+        }
+
+        public Integer getStrength() {
+            return strength;
+        }
+
+        public void setStrength(Integer strength) {
+            this.strength = strength;
+        }
+
+        public Long getTargetVerifyTime() {
+            return targetVerifyTime;
+        }
+
+        public void setTargetVerifyTime(Long targetVerifyTime) {
+            this.targetVerifyTime = targetVerifyTime;
+        }
+    }
+
+    public static class Login {
+
+        @Min(1)
+        private Integer threads = Runtime.getRuntime().availableProcessors();
+
+        @Min(0)
+        private Integer queueCapacity = 100;
+
+        @Min(1)
+        private Long timeout = 10_000L;
+
+        public Integer getThreads() {
+            return threads;
+        }
+
+        public void setThreads(Integer threads) {
+            this.threads = threads;
+        }
+
+        public Integer getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(Integer queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public Long getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Long timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    public static class Keystore {
+
+        /**
+         * Path of the keystore file, reloaded whenever it has been modified. Its aliases are the key ids.
+         */
+        private String location;
+
+        @NotEmpty
+        private String type = "PKCS12";
+
+        private String password;
+
+        /**
+         * Alias of the key signing new tokens, all other keys only verify tokens. No tokens are signed if missing.
+         */
+        private String signingKeyId;
+
+        public boolean isConfigured() {
+            return location != null && !location.isEmpty();
+        }
+
+        public String getLocation() {
+            return location;
+        }
+
+        public void setLocation(String location) {
+            this.location = location;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public void setType(String type) {
+            this.type = type;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public String getSigningKeyId() {
+            return signingKeyId;
+        }
+
+        public void setSigningKeyId(String signingKeyId) {
+            this.signingKeyId = signingKeyId;
+        }
+    }
+
+    public static class Revocation {
+
+        /**
+         * The number of simultaneously revoked (and not yet expired) tokens the denylist is sized for
+         */
+        @Min(1)
+        private Integer expectedTokens = 10_000;
+
+        public Integer getExpectedTokens() {
+            return expectedTokens;
+        }
+
+        public void setExpectedTokens(Integer expectedTokens) {
+            this.expectedTokens = expectedTokens;
+        }
+    }
+
+    public enum SigningAlgorithm {
+        HS512,
+        RS256,
+        ES256
+    }
 }
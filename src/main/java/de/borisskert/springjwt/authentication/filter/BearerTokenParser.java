@@ -0,0 +1,86 @@
+package de.borisskert.springjwt.authentication.filter;
+
+import static de.borisskert.springjwt.authentication.SecurityConstants.TOKEN_PREFIX;
+
+/**
+ * Extracts the token from an "Authorization: Bearer &lt;token&gt;" header value without regular expressions or
+ * intermediate strings. Headers which cannot contain a well-formed JWT are rejected before any crypto is involved.
+ */
+final class BearerTokenParser {
+    static final int MAX_HEADER_LENGTH = 8192;
+
+    private static final int PREFIX_LENGTH = TOKEN_PREFIX.length();
+    private static final int JWT_SEPARATOR_COUNT = 2;
+
+    private BearerTokenParser() {
+    }
+
+    /**
+     * @return the token or {@code null} if the header value is missing or is not a bearer JWT
+     */
+    static String parse(String headerValue) {
+        if (headerValue == null) {
+            return null;
+        }
+
+        int length = headerValue.length();
+
+        if (length <= PREFIX_LENGTH || length > MAX_HEADER_LENGTH) {
+            return null;
+        }
+
+        if (!headerValue.regionMatches(true, 0, TOKEN_PREFIX, 0, PREFIX_LENGTH)) {
+            return null;
+        }
+
+        int start = PREFIX_LENGTH;
+        while (start < length && headerValue.charAt(start) == ' ') {
+            start++;
+        }
+
+        int end = length;
+        while (end > start && headerValue.charAt(end - 1) == ' ') {
+            end--;
+        }
+
+        if (!isJwtShaped(headerValue, start, end)) {
+            return null;
+        }
+
+        return headerValue.substring(start, end);
+    }
+
+    /*
+     * A compact JWS consists of three base64url encoded parts separated by dots
+     */
+    private static boolean isJwtShaped(String value, int start, int end) {
+        int separators = 0;
+        boolean emptyPart = true;
+
+        for (int index = start; index < end; index++) {
+            char character = value.charAt(index);
+
+            if (character == '.') {
+                if (emptyPart || ++separators > JWT_SEPARATOR_COUNT) {
+                    return false;
+                }
+
+                emptyPart = true;
+            } else if (isBase64UrlCharacter(character)) {
+                emptyPart = false;
+            } else {
+                return false;
+            }
+        }
+
+        return separators == JWT_SEPARATOR_COUNT && !emptyPart;
+    }
+
+    private static boolean isBase64UrlCharacter(char character) {
+        return character >= 'A' && character <= 'Z'
+                || character >= 'a' && character <= 'z'
+                || character >= '0' && character <= '9'
+                || character == '-'
+                || character == '_';
+    }
+}
@@ -1,32 +1,52 @@
 package de.borisskert.springjwt.authentication.filter;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import de.borisskert.springjwt.authentication.LoginCapacityExceededException;
+import de.borisskert.springjwt.authentication.LoginExecutor;
 import de.borisskert.springjwt.authentication.SecurityConstants;
-import de.borisskert.springjwt.authentication.jwt.JwtTokenService;
+import de.borisskert.springjwt.authentication.refresh.RefreshTokenService;
+import de.borisskert.springjwt.authentication.refresh.TokenPair;
+import de.borisskert.springjwt.authentication.userdetails.RepositoryUserDetails;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.web.authentication.AuthenticationFailureHandler;
+import org.springframework.security.web.authentication.DelegatingAuthenticationFailureHandler;
+import org.springframework.security.web.authentication.SimpleUrlAuthenticationFailureHandler;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 import javax.servlet.FilterChain;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.List;
 
 public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilter {
+    private static final String RETRY_AFTER_SECONDS = "1";
+
     private final AuthenticationManager authenticationManager;
     private final ObjectMapper mapper;
 
-    private final JwtTokenService jwtTokenService;
+    private final RefreshTokenService refreshTokenService;
+    private final LoginExecutor loginExecutor;
 
-    public JwtAuthenticationFilter(AuthenticationManager authenticationManager, ObjectMapper mapper, JwtTokenService jwtTokenService) {
+    public JwtAuthenticationFilter(
+            AuthenticationManager authenticationManager,
+            ObjectMapper mapper,
+            RefreshTokenService refreshTokenService,
+            LoginExecutor loginExecutor
+    ) {
         this.authenticationManager = authenticationManager;
         this.mapper = mapper;
-        this.jwtTokenService = jwtTokenService;
+        this.refreshTokenService = refreshTokenService;
+        this.loginExecutor = loginExecutor;
+
+        setAuthenticationFailureHandler(createFailureHandler());
     }
 
     @Override
@@ -37,12 +57,13 @@ public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilte
         try {
             UserCredentials credentials = mapper.readValue(request.getInputStream(), UserCredentials.class);
 
-            return authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            credentials.getUsername(),
-                            credentials.getPassword(),
-                            List.of())
+            UsernamePasswordAuthenticationToken authenticationRequest = new UsernamePasswordAuthenticationToken(
+                    credentials.getUsername(),
+                    credentials.getPassword(),
+                    List.of()
             );
+
+            return loginExecutor.execute(() -> authenticationManager.authenticate(authenticationRequest));
         } catch (IOException e) {
             throw new BadCredentialsException("Invalid credentials");
         }
@@ -55,10 +76,22 @@ public class JwtAuthenticationFilter extends UsernamePasswordAuthenticationFilte
             FilterChain chain,
             Authentication authentication
     ) {
-        UserDetails credentials = (UserDetails) authentication.getPrincipal();
-        String token = jwtTokenService.createSignedTokenFor(credentials);
+        RepositoryUserDetails userDetails = (RepositoryUserDetails) authentication.getPrincipal();
+        TokenPair tokens = refreshTokenService.issueFor(userDetails.getId(), userDetails);
+
+        response.addHeader(SecurityConstants.HEADER_KEY, SecurityConstants.TOKEN_PREFIX + tokens.getAccessToken());
+        response.addHeader(SecurityConstants.REFRESH_TOKEN_HEADER_KEY, tokens.getRefreshToken());
+    }
+
+    private static AuthenticationFailureHandler createFailureHandler() {
+        LinkedHashMap<Class<? extends AuthenticationException>, AuthenticationFailureHandler> handlers = new LinkedHashMap<>();
+
+        handlers.put(LoginCapacityExceededException.class, (request, response, exception) -> {
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), exception.getMessage());
+        });
 
-        response.addHeader(SecurityConstants.HEADER_KEY, SecurityConstants.TOKEN_PREFIX + token);
+        return new DelegatingAuthenticationFailureHandler(handlers, new SimpleUrlAuthenticationFailureHandler());
     }
 
     private static class UserCredentials {
@@ -5,24 +5,29 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.Optional;
 
 import static de.borisskert.springjwt.authentication.SecurityConstants.HEADER_KEY;
-import static de.borisskert.springjwt.authentication.SecurityConstants.TOKEN_PREFIX;
 
 public class JwtAuthorizationFilter extends BasicAuthenticationFilter {
 
     private final JwtTokenService jwtTokenService;
+    private final RequestMatcher publicRoutes;
 
-    public JwtAuthorizationFilter(AuthenticationManager authManager, JwtTokenService jwtTokenService) {
+    public JwtAuthorizationFilter(
+            AuthenticationManager authManager,
+            JwtTokenService jwtTokenService,
+            RequestMatcher publicRoutes
+    ) {
         super(authManager);
         this.jwtTokenService = jwtTokenService;
+        this.publicRoutes = publicRoutes;
     }
 
     @Override
@@ -31,6 +36,11 @@ public class JwtAuthorizationFilter extends BasicAuthenticationFilter {
             HttpServletResponse response,
             FilterChain chain
     ) throws IOException, ServletException {
+        if (publicRoutes.matches(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
         Authentication authentication = extractAuthentication(request);
         SecurityContextHolder.getContext().setAuthentication(authentication);
 
@@ -38,18 +48,13 @@ public class JwtAuthorizationFilter extends BasicAuthenticationFilter {
     }
 
     private Authentication extractAuthentication(HttpServletRequest request) {
-        String headerValue = request.getHeader(HEADER_KEY);
-        return Optional.ofNullable(headerValue)
-                .flatMap(this::toAuthenticationToken)
-                .orElse(null);
-    }
+        String tokenValue = BearerTokenParser.parse(request.getHeader(HEADER_KEY));
 
-    private Optional<Authentication> toAuthenticationToken(String headerValue) {
-        String tokenValue = extractToken(headerValue);
-        return jwtTokenService.tryToAuthenticate(tokenValue);
-    }
+        if (tokenValue == null) {
+            return null;
+        }
 
-    private String extractToken(String headerValue) {
-        return headerValue.replace(TOKEN_PREFIX, "");
+        return jwtTokenService.tryToAuthenticate(tokenValue)
+                .orElse(null);
     }
 }
@@ -3,19 +3,33 @@ package de.borisskert.springjwt.authentication.jwt;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
+import java.time.Instant;
 import java.util.Collection;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 public class JwtAuthentication extends AbstractAuthenticationToken {
 
     private final String principal;
+    private final String tokenId;
+    private final Instant expiresAt;
+    private final String sessionId;
 
     public JwtAuthentication(String principal, Collection<? extends GrantedAuthority> authorities) {
+        this(principal, authorities, null, null, null);
+    }
+
+    public JwtAuthentication(
+            String principal,
+            Collection<? extends GrantedAuthority> authorities,
+            String tokenId,
+            Instant expiresAt,
+            String sessionId
+    ) {
         super(authorities);
         this.principal = principal;
+        this.tokenId = tokenId;
+        this.expiresAt = expiresAt;
+        this.sessionId = sessionId;
     }
 
     @Override
@@ -33,12 +47,39 @@ public class JwtAuthentication extends AbstractAuthenticationToken {
         return true;
     }
 
+    /**
+     * @return the token's jti claim, null for tokens issued without it
+     */
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * @return the token's sid claim, i.e. the refresh token family of its login, null for tokens issued without it
+     */
+    public String getSessionId() {
+        return sessionId;
+    }
+
     public static Authentication of(String principal, Collection<String> roles) {
-        Set<SimpleGrantedAuthority> authorities = roles.stream()
-                .map(role -> "ROLE_" + role)
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toUnmodifiableSet());
+        return new JwtAuthentication(principal, RoleAuthorities.of(roles));
+    }
+
+    public static JwtAuthentication of(String principal, Collection<String> roles, String tokenId, Instant expiresAt) {
+        return of(principal, roles, tokenId, expiresAt, null);
+    }
 
-        return new JwtAuthentication(principal, authorities);
+    public static JwtAuthentication of(
+            String principal,
+            Collection<String> roles,
+            String tokenId,
+            Instant expiresAt,
+            String sessionId
+    ) {
+        return new JwtAuthentication(principal, RoleAuthorities.of(roles), tokenId, expiresAt, sessionId);
     }
 }
@@ -0,0 +1,82 @@
+package de.borisskert.springjwt.authentication.jwt;
+
+import com.auth0.jwt.exceptions.AlgorithmMismatchException;
+import com.auth0.jwt.exceptions.InvalidClaimException;
+import com.auth0.jwt.exceptions.JWTDecodeException;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.exceptions.SignatureVerificationException;
+import com.auth0.jwt.exceptions.TokenExpiredException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Meters of signing and verifying tokens. All meters are registered up front, so recording doesn't look them up.
+ */
+class JwtMetrics {
+    private static final String VERIFY_TIMER_NAME = "jwt.verify";
+    private static final String OUTCOME_TAG = "outcome";
+
+    private final Timer signTimer;
+    private final Timer verifiedTimer;
+    private final Timer expiredTimer;
+    private final Timer badSignatureTimer;
+    private final Timer invalidClaimTimer;
+    private final Timer malformedTimer;
+    private final Timer invalidTimer;
+    private final Counter revokedCounter;
+
+    JwtMetrics(MeterRegistry registry) {
+        this.signTimer = Timer.builder("jwt.sign")
+                .description("Time to create and sign a token")
+                .register(registry);
+        this.verifiedTimer = verifyTimer(registry, "success");
+        this.expiredTimer = verifyTimer(registry, "expired");
+        this.badSignatureTimer = verifyTimer(registry, "bad_signature");
+        this.invalidClaimTimer = verifyTimer(registry, "invalid_claim");
+        this.malformedTimer = verifyTimer(registry, "malformed");
+        this.invalidTimer = verifyTimer(registry, "invalid");
+        this.revokedCounter = Counter.builder("jwt.revoked")
+                .description("Verified tokens rejected since they have been revoked")
+                .register(registry);
+    }
+
+    Timer getSignTimer() {
+        return signTimer;
+    }
+
+    Timer getVerifiedTimer() {
+        return verifiedTimer;
+    }
+
+    Timer getFailedTimer(JWTVerificationException exception) {
+        if (exception instanceof TokenExpiredException) {
+            return expiredTimer;
+        }
+
+        if (exception instanceof SignatureVerificationException || exception instanceof AlgorithmMismatchException) {
+            return badSignatureTimer;
+        }
+
+        if (exception instanceof InvalidClaimException) {
+            return invalidClaimTimer;
+        }
+
+        if (exception instanceof JWTDecodeException) {
+            return malformedTimer;
+        }
+
+        return invalidTimer;
+    }
+
+    Counter getRevokedCounter() {
+        return revokedCounter;
+    }
+
+    private static Timer verifyTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder(VERIFY_TIMER_NAME)
+                .description("Time to verify a token which has not been cached, by outcome")
+                .tag(OUTCOME_TAG, outcome)
+                .register(registry);
+    }
+}
@@ -1,14 +1,17 @@
 package de.borisskert.springjwt.authentication.jwt;
 
 import com.auth0.jwt.JWT;
-import com.auth0.jwt.JWTVerifier.BaseVerification;
-import com.auth0.jwt.algorithms.Algorithm;
-import com.auth0.jwt.exceptions.InvalidClaimException;
-import com.auth0.jwt.exceptions.SignatureVerificationException;
-import com.auth0.jwt.exceptions.TokenExpiredException;
+import com.auth0.jwt.JWTCreator;
+import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import de.borisskert.springjwt.authentication.SecurityProperties;
+import de.borisskert.springjwt.authentication.revocation.RevokedTokens;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -18,47 +21,113 @@ import java.time.Clock;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
-import static com.auth0.jwt.algorithms.Algorithm.HMAC512;
-
 @Service
 public class JwtTokenService {
+    private static final Logger LOG = LoggerFactory.getLogger(JwtTokenService.class);
+
     private static final String ROLES_CLAIM_NAME = "roles";
+    private static final String SESSION_ID_CLAIM_NAME = "sid";
 
     private final SecurityProperties properties;
     private final Clock clock;
+    private final VerifiedTokenCache verifiedTokens;
+    private final RevokedTokens revokedTokens;
+    private final JwtMetrics metrics;
+
+    private volatile SigningSetup signingSetup;
 
     @Autowired
-    public JwtTokenService(SecurityProperties properties, Clock clock) {
+    public JwtTokenService(
+            SecurityProperties properties,
+            Clock clock,
+            RevokedTokens revokedTokens,
+            MeterRegistry meterRegistry
+    ) {
         this.properties = properties;
         this.clock = clock;
+        this.revokedTokens = revokedTokens;
+        this.metrics = new JwtMetrics(meterRegistry);
+        this.verifiedTokens = new VerifiedTokenCache(properties.getTokenCacheSize(), clock);
+        this.verifiedTokens.bindTo(meterRegistry);
+        this.signingSetup = SigningSetup.from(properties, clock);
     }
 
     public String createSignedTokenFor(UserDetails credentials) {
+        return createSignedTokenFor(credentials, null);
+    }
+
+    /**
+     * @param sessionId identifies the login the token belongs to, so logging out can end it as a whole; omitted if null
+     */
+    public String createSignedTokenFor(UserDetails credentials, String sessionId) {
         long issuedAt = clock.instant().toEpochMilli();
         long expiresAt = issuedAt + properties.getExpiration();
 
-        Algorithm hmac512 = HMAC512(properties.getSecret().getBytes());
+        SigningSetup setup = currentSigningSetup();
+
+        if (!setup.canSign()) {
+            throw new IllegalStateException("Cannot sign tokens: no signing key configured");
+        }
 
         List<String> roles = credentials.getAuthorities()
                 .stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toUnmodifiableList());
 
-        return JWT.create()
+        long start = System.nanoTime();
+        JWTCreator.Builder builder = JWT.create();
+
+        if (setup.getSigningKeyId() != null) {
+            builder.withKeyId(setup.getSigningKeyId());
+        }
+
+        if (sessionId != null) {
+            builder.withClaim(SESSION_ID_CLAIM_NAME, sessionId);
+        }
+
+        String token = builder
+                .withJWTId(UUID.randomUUID().toString())
                 .withSubject(credentials.getUsername())
-                .withIssuer(properties.getIssuer())
-                .withAudience(properties.getAudience())
+                .withIssuer(setup.getIssuer())
+                .withAudience(setup.getAudience())
                 .withIssuedAt(new Date(issuedAt))
                 .withClaim(ROLES_CLAIM_NAME, roles)
                 .withExpiresAt(new Date(expiresAt))
-                .sign(hmac512);
+                .sign(setup.getAlgorithm());
+
+        metrics.getSignTimer().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        return token;
     }
 
     public Optional<Authentication> tryToAuthenticate(String tokenValue) {
-        return tryToParseJwt(tokenValue)
-                .map(this::mapToAuthentication);
+        SigningSetup setup = currentSigningSetup();
+
+        return verifiedTokens.get(tokenValue)
+                .or(() -> verifyAndRemember(setup, tokenValue))
+                .filter(authentication -> !isRevoked(authentication));
+    }
+
+    public boolean canSign() {
+        return currentSigningSetup().canSign();
+    }
+
+    public CacheStats getVerifiedTokenCacheStats() {
+        return verifiedTokens.stats();
+    }
+
+    private Optional<Authentication> verifyAndRemember(SigningSetup setup, String tokenValue) {
+        return tryToParseJwt(setup, tokenValue)
+                .map(decodedJwt -> {
+                    Authentication authentication = mapToAuthentication(decodedJwt);
+                    verifiedTokens.put(tokenValue, authentication, decodedJwt.getExpiresAt());
+
+                    return authentication;
+                });
     }
 
     private Authentication mapToAuthentication(DecodedJWT decodedJwt) {
@@ -67,28 +136,83 @@ public class JwtTokenService {
         List<String> roles = decodedJwt.getClaim(ROLES_CLAIM_NAME)
                 .asList(String.class);
 
-        return JwtAuthentication.of(user, roles);
+        Date expiresAt = decodedJwt.getExpiresAt();
+        String sessionId = decodedJwt.getClaim(SESSION_ID_CLAIM_NAME).asString();
+
+        return JwtAuthentication.of(
+                user,
+                roles,
+                decodedJwt.getId(),
+                expiresAt == null ? null : expiresAt.toInstant(),
+                sessionId
+        );
     }
 
-    private Optional<DecodedJWT> tryToParseJwt(String token) {
-        byte[] secretInBytes = properties.getSecret().getBytes();
-        Algorithm hmacSha512 = Algorithm.HMAC512(secretInBytes);
+    /*
+     * Revocation is checked for cached authentications as well, since tokens may be revoked after their verification
+     */
+    private boolean isRevoked(Authentication authentication) {
+        boolean revoked = authentication instanceof JwtAuthentication
+                && revokedTokens.isRevoked(((JwtAuthentication) authentication).getTokenId());
 
-        try {
-            BaseVerification verification = (BaseVerification) JWT.require(hmacSha512)
-                    .withIssuer(properties.getIssuer())
-                    .withAudience(properties.getAudience());
+        if (revoked) {
+            metrics.getRevokedCounter().increment();
+        }
 
-            DecodedJWT verifiedToken = verification
-                    .build(() -> {
-                        long currentMillis = clock.instant().toEpochMilli();
-                        return new Date(currentMillis);
-                    })
-                    .verify(token);
+        return revoked;
+    }
+
+    private Optional<DecodedJWT> tryToParseJwt(SigningSetup setup, String token) {
+        long start = System.nanoTime();
+
+        try {
+            DecodedJWT verifiedToken = setup.verify(token);
+            metrics.getVerifiedTimer().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
 
             return Optional.of(verifiedToken);
-        } catch (SignatureVerificationException | InvalidClaimException | TokenExpiredException e) {
+        } catch (JWTVerificationException e) {
+            metrics.getFailedTimer(e).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
             return Optional.empty();
         }
     }
+
+    /**
+     * Picks up keys added to or removed from the keystore without restart. Tokens signed with keys still contained
+     * stay valid, so rotating the signing key doesn't force anyone to log in again.
+     */
+    @Scheduled(fixedDelayString = "${app.security.keystore.reload-interval:PT1M}")
+    public void reloadModifiedKeystore() {
+        SigningSetup setup = signingSetup;
+
+        if (!setup.isKeystoreModified()) {
+            return;
+        }
+
+        try {
+            signingSetup = SigningSetup.from(properties, clock);
+            verifiedTokens.invalidateAll();
+
+            LOG.info("Reloaded keystore '{}'", properties.getKeystore().getLocation());
+        } catch (IllegalStateException e) {
+            LOG.error("Cannot reload keystore, keeping the former keys", e);
+        }
+    }
+
+    /*
+     * The algorithm and the verifier are thread-safe and expensive to create, so they are built once and only
+     * rebuilt when the relevant security properties have been changed. Tokens verified with the former setup are
+     * forgotten at the same time.
+     */
+    private SigningSetup currentSigningSetup() {
+        SigningSetup setup = signingSetup;
+
+        if (!setup.matches(properties)) {
+            setup = SigningSetup.from(properties, clock);
+            signingSetup = setup;
+
+            verifiedTokens.invalidateAll();
+        }
+
+        return setup;
+    }
 }
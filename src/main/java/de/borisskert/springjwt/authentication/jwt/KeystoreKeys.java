@@ -0,0 +1,101 @@
+package de.borisskert.springjwt.authentication.jwt;
+
+import com.auth0.jwt.algorithms.Algorithm;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.cert.Certificate;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads all keys of a local keystore, each alias being the key id (kid):
+ * secret keys are used for HS512, private keys with certificate for RS256 or ES256, and trusted certificates for
+ * verifying RS256 or ES256 tokens only.
+ */
+class KeystoreKeys {
+
+    private KeystoreKeys() {
+    }
+
+    static Map<String, Entry> read(String location, String type, String password) {
+        char[] passwordChars = password == null ? null : password.toCharArray();
+
+        try (InputStream stream = Files.newInputStream(Paths.get(location))) {
+            KeyStore keyStore = KeyStore.getInstance(type);
+            keyStore.load(stream, passwordChars);
+
+            Map<String, Entry> entries = new HashMap<>();
+
+            for (String alias : Collections.list(keyStore.aliases())) {
+                entries.put(alias, readEntry(keyStore, alias, passwordChars));
+            }
+
+            return Map.copyOf(entries);
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot read keystore '" + location + "'", e);
+        }
+    }
+
+    private static Entry readEntry(KeyStore keyStore, String alias, char[] password) throws GeneralSecurityException {
+        if (keyStore.isCertificateEntry(alias)) {
+            return new Entry(createAlgorithm(alias, keyStore.getCertificate(alias).getPublicKey(), null), false);
+        }
+
+        Key key = keyStore.getKey(alias, password);
+
+        if (key instanceof SecretKey) {
+            return new Entry(Algorithm.HMAC512(key.getEncoded()), true);
+        }
+
+        if (key instanceof PrivateKey) {
+            Certificate certificate = keyStore.getCertificate(alias);
+            return new Entry(createAlgorithm(alias, certificate.getPublicKey(), (PrivateKey) key), true);
+        }
+
+        throw new IllegalStateException("Unsupported keystore entry '" + alias + "'");
+    }
+
+    private static Algorithm createAlgorithm(String alias, PublicKey publicKey, PrivateKey privateKey) {
+        if (publicKey instanceof RSAPublicKey) {
+            return Algorithm.RSA256((RSAPublicKey) publicKey, (RSAPrivateKey) privateKey);
+        }
+
+        if (publicKey instanceof ECPublicKey) {
+            return Algorithm.ECDSA256((ECPublicKey) publicKey, (ECPrivateKey) privateKey);
+        }
+
+        throw new IllegalStateException("Unsupported key algorithm " + publicKey.getAlgorithm() + " of keystore entry '" + alias + "'");
+    }
+
+    static class Entry {
+        private final Algorithm algorithm;
+        private final boolean canSign;
+
+        private Entry(Algorithm algorithm, boolean canSign) {
+            this.algorithm = algorithm;
+            this.canSign = canSign;
+        }
+
+        Algorithm getAlgorithm() {
+            return algorithm;
+        }
+
+        boolean canSign() {
+            return canSign;
+        }
+    }
+}
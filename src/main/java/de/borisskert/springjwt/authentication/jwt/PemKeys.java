@@ -0,0 +1,59 @@
+package de.borisskert.springjwt.authentication.jwt;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+
+/**
+ * Reads X.509 public keys ("BEGIN PUBLIC KEY") and PKCS#8 private keys ("BEGIN PRIVATE KEY") from local PEM files
+ */
+class PemKeys {
+
+    private PemKeys() {
+    }
+
+    static PublicKey readPublicKey(String location, String keyAlgorithm) {
+        byte[] encoded = readPem(location);
+
+        try {
+            return KeyFactory.getInstance(keyAlgorithm)
+                    .generatePublic(new X509EncodedKeySpec(encoded));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot read " + keyAlgorithm + " public key from '" + location + "'", e);
+        }
+    }
+
+    static PrivateKey readPrivateKey(String location, String keyAlgorithm) {
+        byte[] encoded = readPem(location);
+
+        try {
+            return KeyFactory.getInstance(keyAlgorithm)
+                    .generatePrivate(new PKCS8EncodedKeySpec(encoded));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot read " + keyAlgorithm + " private key from '" + location + "'", e);
+        }
+    }
+
+    private static byte[] readPem(String location) {
+        String pem;
+
+        try {
+            pem = Files.readString(Paths.get(location));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read PEM file '" + location + "'", e);
+        }
+
+        String base64 = pem
+                .replaceAll("-----(BEGIN|END) [A-Z ]+-----", "")
+                .replaceAll("\\s", "");
+
+        return Base64.getDecoder().decode(base64);
+    }
+}
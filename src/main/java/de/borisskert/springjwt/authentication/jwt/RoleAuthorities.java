@@ -0,0 +1,49 @@
+package de.borisskert.springjwt.authentication.jwt;
+
+import de.borisskert.springjwt.user.persistence.RoleRegistry;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Canonical authority sets for every combination of known roles, so authenticating a token doesn't build new
+ * authorities on every request. Claims containing unknown roles are mapped without caching.
+ */
+final class RoleAuthorities {
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    private static final List<Set<GrantedAuthority>> AUTHORITIES_BY_MASK = RoleRegistry.combinations()
+            .stream()
+            .map(RoleAuthorities::toAuthorities)
+            .collect(Collectors.toUnmodifiableList());
+
+    private RoleAuthorities() {
+    }
+
+    static Set<GrantedAuthority> of(Collection<String> roles) {
+        int mask = 0;
+
+        for (String role : roles) {
+            int index = RoleRegistry.ROLES.indexOf(role);
+
+            if (index < 0) {
+                return toAuthorities(roles);
+            }
+
+            mask |= 1 << index;
+        }
+
+        return AUTHORITIES_BY_MASK.get(mask);
+    }
+
+    private static Set<GrantedAuthority> toAuthorities(Collection<String> roles) {
+        return roles.stream()
+                .map(role -> ROLE_PREFIX + role)
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
@@ -0,0 +1,223 @@
+package de.borisskert.springjwt.authentication.jwt;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.JWTVerifier.BaseVerification;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import de.borisskert.springjwt.authentication.SecurityProperties;
+import de.borisskert.springjwt.authentication.SecurityProperties.Keystore;
+import de.borisskert.springjwt.authentication.SecurityProperties.SigningAlgorithm;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Clock;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable snapshot of the signing algorithm, its keys and the verifiers built from the security properties.
+ * With a keystore configured, tokens carry the id of their signing key (kid) which selects their verifier, so keys
+ * can be rotated while tokens signed with former keys stay valid.
+ */
+class SigningSetup {
+    private final SigningAlgorithm signingAlgorithm;
+    private final String secret;
+    private final String publicKeyLocation;
+    private final String privateKeyLocation;
+    private final String keystoreLocation;
+    private final String keystoreType;
+    private final String keystorePassword;
+    private final String signingKeyId;
+    private final FileTime keystoreModified;
+    private final String issuer;
+    private final String audience;
+
+    private final Algorithm algorithm;
+    private final JWTVerifier defaultVerifier;
+    private final Map<String, JWTVerifier> verifiersByKeyId;
+
+    private SigningSetup(
+            SecurityProperties properties,
+            FileTime keystoreModified,
+            Algorithm algorithm,
+            JWTVerifier defaultVerifier,
+            Map<String, JWTVerifier> verifiersByKeyId
+    ) {
+        Keystore keystore = properties.getKeystore();
+
+        this.signingAlgorithm = properties.getAlgorithm();
+        this.secret = properties.getSecret();
+        this.publicKeyLocation = properties.getPublicKeyLocation();
+        this.privateKeyLocation = properties.getPrivateKeyLocation();
+        this.keystoreLocation = keystore.getLocation();
+        this.keystoreType = keystore.getType();
+        this.keystorePassword = keystore.getPassword();
+        this.signingKeyId = keystore.getSigningKeyId();
+        this.keystoreModified = keystoreModified;
+        this.issuer = properties.getIssuer();
+        this.audience = properties.getAudience();
+        this.algorithm = algorithm;
+        this.defaultVerifier = defaultVerifier;
+        this.verifiersByKeyId = verifiersByKeyId;
+    }
+
+    String getIssuer() {
+        return issuer;
+    }
+
+    String getAudience() {
+        return audience;
+    }
+
+    Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * @return the kid header of signed tokens, null without keystore
+     */
+    String getSigningKeyId() {
+        return keystoreLocation == null ? null : signingKeyId;
+    }
+
+    boolean canSign() {
+        return algorithm != null;
+    }
+
+    /**
+     * Verifies the token with the key referenced by its kid header, or with the signing key if it has none
+     */
+    DecodedJWT verify(String token) {
+        DecodedJWT decodedJwt = JWT.decode(token);
+        String keyId = decodedJwt.getKeyId();
+
+        JWTVerifier verifier = keyId == null ? defaultVerifier : verifiersByKeyId.get(keyId);
+
+        if (verifier == null) {
+            throw new JWTVerificationException("Unknown key id '" + keyId + "'");
+        }
+
+        return verifier.verify(decodedJwt);
+    }
+
+    boolean matches(SecurityProperties properties) {
+        Keystore keystore = properties.getKeystore();
+
+        return signingAlgorithm == properties.getAlgorithm()
+                && Objects.equals(secret, properties.getSecret())
+                && Objects.equals(publicKeyLocation, properties.getPublicKeyLocation())
+                && Objects.equals(privateKeyLocation, properties.getPrivateKeyLocation())
+                && Objects.equals(keystoreLocation, keystore.getLocation())
+                && Objects.equals(keystoreType, keystore.getType())
+                && Objects.equals(keystorePassword, keystore.getPassword())
+                && Objects.equals(signingKeyId, keystore.getSigningKeyId())
+                && Objects.equals(issuer, properties.getIssuer())
+                && Objects.equals(audience, properties.getAudience());
+    }
+
+    /**
+     * @return true if the keystore file has been modified since this setup has been loaded
+     */
+    boolean isKeystoreModified() {
+        return keystoreLocation != null && !Objects.equals(keystoreModified, lastModified(keystoreLocation));
+    }
+
+    static SigningSetup from(SecurityProperties properties, Clock clock) {
+        Keystore keystore = properties.getKeystore();
+
+        if (keystore.isConfigured()) {
+            return fromKeystore(properties, clock);
+        }
+
+        Algorithm algorithm = createAlgorithm(properties);
+        JWTVerifier verifier = createVerifier(algorithm, properties, clock);
+
+        return new SigningSetup(properties, null, properties.isVerifyOnly() ? null : algorithm, verifier, Map.of());
+    }
+
+    private static SigningSetup fromKeystore(SecurityProperties properties, Clock clock) {
+        Keystore keystore = properties.getKeystore();
+        FileTime modified = lastModified(keystore.getLocation());
+
+        Map<String, KeystoreKeys.Entry> entries = KeystoreKeys.read(
+                keystore.getLocation(),
+                keystore.getType(),
+                keystore.getPassword()
+        );
+
+        Map<String, JWTVerifier> verifiersByKeyId = new HashMap<>();
+        entries.forEach((keyId, entry) -> verifiersByKeyId.put(keyId, createVerifier(entry.getAlgorithm(), properties, clock)));
+
+        String signingKeyId = keystore.getSigningKeyId();
+
+        if (signingKeyId == null) {
+            return new SigningSetup(properties, modified, null, null, Map.copyOf(verifiersByKeyId));
+        }
+
+        KeystoreKeys.Entry signingEntry = entries.get(signingKeyId);
+
+        if (signingEntry == null || !signingEntry.canSign()) {
+            throw new IllegalStateException("Keystore '" + keystore.getLocation() + "' contains no signing key '" + signingKeyId + "'");
+        }
+
+        return new SigningSetup(
+                properties,
+                modified,
+                signingEntry.getAlgorithm(),
+                verifiersByKeyId.get(signingKeyId),
+                Map.copyOf(verifiersByKeyId)
+        );
+    }
+
+    private static JWTVerifier createVerifier(Algorithm algorithm, SecurityProperties properties, Clock clock) {
+        BaseVerification verification = (BaseVerification) JWT.require(algorithm)
+                .withIssuer(properties.getIssuer())
+                .withAudience(properties.getAudience());
+
+        return verification.build(() -> {
+            long currentMillis = clock.instant().toEpochMilli();
+            return new Date(currentMillis);
+        });
+    }
+
+    private static Algorithm createAlgorithm(SecurityProperties properties) {
+        SigningAlgorithm signingAlgorithm = properties.getAlgorithm();
+        String publicKeyLocation = properties.getPublicKeyLocation();
+        String privateKeyLocation = properties.getPrivateKeyLocation();
+
+        switch (signingAlgorithm) {
+            case RS256:
+                return Algorithm.RSA256(
+                        (RSAPublicKey) PemKeys.readPublicKey(publicKeyLocation, "RSA"),
+                        properties.isVerifyOnly() ? null : (RSAPrivateKey) PemKeys.readPrivateKey(privateKeyLocation, "RSA")
+                );
+            case ES256:
+                return Algorithm.ECDSA256(
+                        (ECPublicKey) PemKeys.readPublicKey(publicKeyLocation, "EC"),
+                        properties.isVerifyOnly() ? null : (ECPrivateKey) PemKeys.readPrivateKey(privateKeyLocation, "EC")
+                );
+            case HS512:
+                return Algorithm.HMAC512(properties.getSecret().getBytes());
+            default:
+                throw new IllegalStateException("Unsupported signing algorithm: " + signingAlgorithm);
+        }
+    }
+
+    private static FileTime lastModified(String location) {
+        try {
+            return Files.getLastModifiedTime(Paths.get(location));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package de.borisskert.springjwt.authentication.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.core.Authentication;
+
+import java.time.Clock;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers already verified tokens until their expiration, so a reused token skips signature verification and
+ * claim decoding.
+ */
+class VerifiedTokenCache {
+    private static final String CACHE_NAME = "verifiedTokens";
+
+    private final Clock clock;
+    private final boolean enabled;
+    private final Cache<String, VerifiedToken> cache;
+
+    /**
+     * @param maximumSize a maximum size of 0 disables the cache
+     */
+    VerifiedTokenCache(long maximumSize, Clock clock) {
+        this.clock = clock;
+        this.enabled = maximumSize > 0;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilTokenExpires())
+                .recordStats()
+                .build();
+    }
+
+    Optional<Authentication> get(String token) {
+        VerifiedToken verifiedToken = cache.getIfPresent(token);
+
+        if (verifiedToken == null) {
+            return Optional.empty();
+        }
+
+        if (verifiedToken.isExpiredAt(currentSeconds())) {
+            cache.invalidate(token);
+            return Optional.empty();
+        }
+
+        return Optional.of(verifiedToken.authentication);
+    }
+
+    void put(String token, Authentication authentication, Date expiresAt) {
+        if (!enabled || expiresAt == null) {
+            return;
+        }
+
+        cache.put(token, new VerifiedToken(authentication, expiresAt.getTime() / 1000));
+    }
+
+    void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    CacheStats stats() {
+        return cache.stats();
+    }
+
+    /*
+     * Tagged like the caches of the cache manager, since Prometheus requires equal tag keys for equally named meters
+     */
+    void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME, Tags.of("cacheManager", "jwt", "name", CACHE_NAME));
+    }
+
+    /*
+     * The verifier checks the expiration second-precise, so does the cache
+     */
+    private long currentSeconds() {
+        return clock.millis() / 1000;
+    }
+
+    private static class VerifiedToken {
+        private final Authentication authentication;
+        private final long expiresAtSeconds;
+
+        private VerifiedToken(Authentication authentication, long expiresAtSeconds) {
+            this.authentication = authentication;
+            this.expiresAtSeconds = expiresAtSeconds;
+        }
+
+        boolean isExpiredAt(long seconds) {
+            return seconds > expiresAtSeconds;
+        }
+    }
+
+    private class UntilTokenExpires implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String token, VerifiedToken verifiedToken, long currentTime) {
+            long remainingSeconds = verifiedToken.expiresAtSeconds - currentSeconds() + 1;
+            return TimeUnit.SECONDS.toNanos(Math.max(0, remainingSeconds));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, VerifiedToken verifiedToken, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, verifiedToken, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, VerifiedToken verifiedToken, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
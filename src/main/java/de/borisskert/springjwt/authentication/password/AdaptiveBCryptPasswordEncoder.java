@@ -0,0 +1,45 @@
+package de.borisskert.springjwt.authentication.password;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Requests a rehash of every stored BCrypt password whose cost differs from a pinned strength, so the CPU budget of
+ * logins can be lowered as well as raised without resetting passwords. {@link BCryptPasswordEncoder} just upgrades
+ * weaker hashes. A calibrated strength is measured per node and may differ between nodes, so stronger hashes are kept
+ * in that case: they would otherwise be rehashed back and forth on every login.
+ */
+public class AdaptiveBCryptPasswordEncoder extends BCryptPasswordEncoder {
+    private static final int COST_OFFSET = "$2a$".length();
+
+    private final int strength;
+    private final boolean pinned;
+
+    /**
+     * @param pinned whether the strength is configured for all nodes instead of being calibrated per node
+     */
+    public AdaptiveBCryptPasswordEncoder(int strength, boolean pinned) {
+        super(strength);
+        this.strength = strength;
+        this.pinned = pinned;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (super.upgradeEncoding(encodedPassword)) {
+            return true;
+        }
+
+        return pinned
+                && encodedPassword != null
+                && !encodedPassword.isEmpty()
+                && costOf(encodedPassword) != strength;
+    }
+
+    static int costOf(String encodedPassword) {
+        return Integer.parseInt(encodedPassword.substring(COST_OFFSET, COST_OFFSET + 2));
+    }
+}
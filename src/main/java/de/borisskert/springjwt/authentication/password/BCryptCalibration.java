@@ -0,0 +1,40 @@
+package de.borisskert.springjwt.authentication.password;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Determines the strongest BCrypt cost whose hashing time on this machine stays within a target duration
+ */
+public class BCryptCalibration {
+    private static final int MAXIMUM_STRENGTH = 31;
+    private static final String SAMPLE_PASSWORD = "calibration-p@ssw0rd";
+
+    private BCryptCalibration() {
+    }
+
+    public static int calibrate(Duration target, int minimumStrength) {
+        long targetNanos = target.toNanos();
+
+        // warm up the JIT with a cheap cost, so the first measurement isn't distorted
+        measure(minimumStrength);
+
+        int strength = minimumStrength;
+
+        while (strength < MAXIMUM_STRENGTH && measure(strength + 1) <= targetNanos) {
+            strength++;
+        }
+
+        return strength;
+    }
+
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+
+        long start = System.nanoTime();
+        encoder.encode(SAMPLE_PASSWORD);
+
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,47 @@
+package de.borisskert.springjwt.authentication.password;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.Map;
+
+/**
+ * Registry of all supported password encoders, selected by the prefix of the stored hash. New hashes are encoded with
+ * the configured encoding, stored hashes of another (or without any) prefix are rehashed on the next login.
+ */
+public class PasswordEncoders {
+
+    private PasswordEncoders() {
+    }
+
+    public static DelegatingPasswordEncoder create(PasswordEncoding encoding, int bCryptStrength) {
+        return create(encoding, bCryptStrength, true);
+    }
+
+    /**
+     * @param bCryptStrengthPinned whether the BCrypt strength is configured for all nodes instead of being calibrated,
+     *                             see {@link AdaptiveBCryptPasswordEncoder}
+     */
+    public static DelegatingPasswordEncoder create(
+            PasswordEncoding encoding,
+            int bCryptStrength,
+            boolean bCryptStrengthPinned
+    ) {
+        AdaptiveBCryptPasswordEncoder bCrypt = new AdaptiveBCryptPasswordEncoder(bCryptStrength, bCryptStrengthPinned);
+
+        Map<String, PasswordEncoder> encoders = Map.of(
+                PasswordEncoding.BCRYPT.getId(), bCrypt,
+                PasswordEncoding.PBKDF2.getId(), new Pbkdf2PasswordEncoder(),
+                PasswordEncoding.ARGON2.getId(), new Argon2PasswordEncoder()
+        );
+
+        DelegatingPasswordEncoder delegatingEncoder = new DelegatingPasswordEncoder(encoding.getId(), encoders);
+
+        // hashes stored before introducing the prefixes are plain BCrypt hashes
+        delegatingEncoder.setDefaultPasswordEncoderForMatches(bCrypt);
+
+        return delegatingEncoder;
+    }
+}
@@ -0,0 +1,20 @@
+package de.borisskert.springjwt.authentication.password;
+
+/**
+ * The supported password hashing schemes and their prefix in stored hashes, e.g. "{argon2}$argon2id$..."
+ */
+public enum PasswordEncoding {
+    BCRYPT("bcrypt"),
+    PBKDF2("pbkdf2"),
+    ARGON2("argon2");
+
+    private final String id;
+
+    PasswordEncoding(String id) {
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
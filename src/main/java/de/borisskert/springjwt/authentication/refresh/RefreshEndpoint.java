@@ -0,0 +1,32 @@
+package de.borisskert.springjwt.authentication.refresh;
+
+import de.borisskert.springjwt.authentication.SecurityConstants;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/tokens")
+public class RefreshEndpoint {
+
+    private final RefreshTokenService refreshTokenService;
+
+    @Autowired
+    public RefreshEndpoint(RefreshTokenService refreshTokenService) {
+        this.refreshTokenService = refreshTokenService;
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestHeader(SecurityConstants.REFRESH_TOKEN_HEADER_KEY) String refreshToken) {
+        return refreshTokenService.refresh(refreshToken)
+                .<ResponseEntity<?>>map(tokens -> ResponseEntity.noContent()
+                        .header(SecurityConstants.HEADER_KEY, SecurityConstants.TOKEN_PREFIX + tokens.getAccessToken())
+                        .header(SecurityConstants.REFRESH_TOKEN_HEADER_KEY, tokens.getRefreshToken())
+                        .build())
+                .orElse(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+    }
+}
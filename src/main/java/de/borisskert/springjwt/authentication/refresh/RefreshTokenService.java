@@ -0,0 +1,159 @@
+package de.borisskert.springjwt.authentication.refresh;
+
+import de.borisskert.springjwt.authentication.SecurityProperties;
+import de.borisskert.springjwt.authentication.jwt.JwtTokenService;
+import de.borisskert.springjwt.authentication.refresh.persistence.RefreshTokenEntity;
+import de.borisskert.springjwt.authentication.refresh.persistence.RefreshTokenRepository;
+import de.borisskert.springjwt.authentication.userdetails.RepositoryUserDetailsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues opaque, rotating refresh tokens. Only their SHA-256 hashes are stored: the tokens are random with 256 bits
+ * of entropy, so a fast hash is as safe as a password hash here and keeps refreshing cheap.
+ */
+@Service
+public class RefreshTokenService {
+    private static final Logger LOG = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    private final RefreshTokenRepository repository;
+    private final RepositoryUserDetailsService userDetailsService;
+    private final JwtTokenService jwtTokenService;
+    private final SecurityProperties properties;
+    private final Clock clock;
+
+    private final SecureRandom random = new SecureRandom();
+    private final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+
+    @Autowired
+    public RefreshTokenService(
+            RefreshTokenRepository repository,
+            RepositoryUserDetailsService userDetailsService,
+            JwtTokenService jwtTokenService,
+            SecurityProperties properties,
+            Clock clock
+    ) {
+        this.repository = repository;
+        this.userDetailsService = userDetailsService;
+        this.jwtTokenService = jwtTokenService;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * Starts a new token family, e.g. after a login. The access token carries the family id as session id, so logging
+     * out by the access token can revoke the family as well. The refresh tokens refer to the user by id, since the
+     * username may be changed and taken by another user afterwards.
+     */
+    public TokenPair issueFor(String userId, UserDetails userDetails) {
+        String familyId = UUID.randomUUID().toString();
+
+        return new TokenPair(
+                jwtTokenService.createSignedTokenFor(userDetails, familyId),
+                issue(userId, familyId)
+        );
+    }
+
+    /**
+     * Revokes all refresh tokens of the specified family, i.e. of one login
+     */
+    public void revokeFamily(String familyId) {
+        repository.deleteFamily(familyId);
+    }
+
+    /**
+     * Exchanges the refresh token for a new access token and a new refresh token. A refresh token which has already
+     * been used indicates that it has been stolen, so the whole token family gets revoked in that case.
+     *
+     * @throws RefreshUnavailableException on verify-only nodes, before the refresh token is used up
+     */
+    public Optional<TokenPair> refresh(String refreshToken) {
+        if (!jwtTokenService.canSign()) {
+            throw new RefreshUnavailableException("Cannot refresh tokens: this node verifies tokens only");
+        }
+
+        String tokenHash = hash(refreshToken);
+
+        Optional<RefreshTokenEntity> maybeToken = repository.findById(tokenHash);
+
+        if (maybeToken.isEmpty()) {
+            return Optional.empty();
+        }
+
+        RefreshTokenEntity token = maybeToken.get();
+
+        if (!token.getExpiresAt().isAfter(clock.instant())) {
+            return Optional.empty();
+        }
+
+        if (repository.markUsed(tokenHash) == 0) {
+            LOG.warn("Refresh token reused, revoking token family of user with id '{}'", token.getUserId());
+            repository.deleteFamily(token.getFamilyId());
+
+            return Optional.empty();
+        }
+
+        return userDetailsService.loadUserById(token.getUserId())
+                .map(userDetails -> new TokenPair(
+                        jwtTokenService.createSignedTokenFor(userDetails, token.getFamilyId()),
+                        issue(token.getUserId(), token.getFamilyId())
+                ));
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.revocation.purge-interval:PT1H}")
+    public void purgeExpired() {
+        repository.deleteExpired(clock.instant());
+    }
+
+    private String issue(String userId, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+
+        String refreshToken = encoder.encodeToString(bytes);
+
+        RefreshTokenEntity entity = new RefreshTokenEntity();
+        entity.setTokenHash(hash(refreshToken));
+        entity.setFamilyId(familyId);
+        entity.setUserId(userId);
+        entity.setExpiresAt(clock.instant().plusMillis(properties.getRefreshExpiration()));
+
+        repository.save(entity);
+
+        return refreshToken;
+    }
+
+    private static String hash(String refreshToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance(HASH_ALGORITHM)
+                    .digest(refreshToken.getBytes(StandardCharsets.US_ASCII));
+
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16))
+                        .append(Character.forDigit(b & 0xF, 16));
+            }
+
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
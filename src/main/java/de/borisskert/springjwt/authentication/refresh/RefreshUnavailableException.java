@@ -0,0 +1,11 @@
+package de.borisskert.springjwt.authentication.refresh;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code = HttpStatus.SERVICE_UNAVAILABLE)
+public class RefreshUnavailableException extends RuntimeException {
+    public RefreshUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package de.borisskert.springjwt.authentication.refresh;
+
+public class TokenPair {
+    private final String accessToken;
+    private final String refreshToken;
+
+    public TokenPair(String accessToken, String refreshToken) {
+        this.accessToken = accessToken;
+        this.refreshToken = refreshToken;
+    }
+
+    public String getAccessToken() {
+        return accessToken;
+    }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+}
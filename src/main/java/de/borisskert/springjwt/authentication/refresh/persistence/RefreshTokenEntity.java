@@ -0,0 +1,73 @@
+package de.borisskert.springjwt.authentication.refresh.persistence;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import java.time.Instant;
+
+@Entity
+@Table(name = "refresh_token")
+public class RefreshTokenEntity {
+
+    @Id
+    private String tokenHash;
+
+    /**
+     * All refresh tokens rotated from the same login share their family
+     */
+    @NotEmpty
+    private String familyId;
+
+    /**
+     * The id of the user, since a username may be changed and taken by another user afterwards
+     */
+    @NotEmpty
+    private String userId;
+
+    @NotNull
+    private Instant expiresAt;
+
+    private boolean used;
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+
+    public String getFamilyId() {
+        return familyId;
+    }
+
+    public void setFamilyId(String familyId) {
+        this.familyId = familyId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isUsed() {
+        return used;
+    }
+
+    public void setUsed(boolean used) {
+        this.used = used;
+    }
+}
@@ -0,0 +1,34 @@
+package de.borisskert.springjwt.authentication.refresh.persistence;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface RefreshTokenRepository extends CrudRepository<RefreshTokenEntity, String> {
+
+    /**
+     * Marks the token as used unless it has been used before, so concurrent refreshes cannot both succeed
+     *
+     * @return 1 if the token has been marked, 0 if it's unknown or already used
+     */
+    @Modifying
+    @Transactional
+    @Query("update RefreshTokenEntity t set t.used = true where t.tokenHash = :tokenHash and t.used = false")
+    int markUsed(@Param("tokenHash") String tokenHash);
+
+    @Modifying
+    @Transactional
+    @Query("delete from RefreshTokenEntity t where t.familyId = :familyId")
+    int deleteFamily(@Param("familyId") String familyId);
+
+    @Modifying
+    @Transactional
+    @Query("delete from RefreshTokenEntity t where t.expiresAt <= :instant")
+    int deleteExpired(@Param("instant") Instant instant);
+}
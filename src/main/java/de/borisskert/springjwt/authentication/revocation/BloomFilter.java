@@ -0,0 +1,80 @@
+package de.borisskert.springjwt.authentication.revocation;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe Bloom filter for strings: membership checks never produce false negatives and don't allocate. Entries
+ * cannot be removed, so the filter has to be rebuilt to forget them.
+ */
+class BloomFilter {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final AtomicLongArray words;
+    private final int bitCount;
+    private final int hashCount;
+
+    BloomFilter(int expectedEntries, double falsePositiveRate) {
+        int entries = Math.max(1, expectedEntries);
+        long bits = (long) Math.ceil(-entries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+
+        this.bitCount = (int) Math.max(Long.SIZE, Math.min(bits, Integer.MAX_VALUE - Long.SIZE));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / entries * Math.log(2)));
+        this.words = new AtomicLongArray((bitCount + Long.SIZE - 1) / Long.SIZE);
+    }
+
+    void add(String value) {
+        long hash = hash(value);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+
+        for (int index = 0; index < hashCount; index++) {
+            int bit = Math.floorMod(first + index * second, bitCount);
+            setBit(bit);
+        }
+    }
+
+    boolean mightContain(String value) {
+        long hash = hash(value);
+        int first = (int) hash;
+        int second = (int) (hash >>> 32);
+
+        for (int index = 0; index < hashCount; index++) {
+            int bit = Math.floorMod(first + index * second, bitCount);
+
+            if ((words.get(bit >>> 6) & 1L << bit) == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void setBit(int bit) {
+        int wordIndex = bit >>> 6;
+        long mask = 1L << bit;
+        long word;
+
+        do {
+            word = words.get(wordIndex);
+
+            if ((word & mask) != 0) {
+                return;
+            }
+        } while (!words.compareAndSet(wordIndex, word, word | mask));
+    }
+
+    /*
+     * 64 bit FNV-1a, split into two 32 bit hashes to derive the probed bits (Kirsch-Mitzenmacher)
+     */
+    private static long hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+
+        for (int index = 0; index < value.length(); index++) {
+            hash ^= value.charAt(index);
+            hash *= FNV_PRIME;
+        }
+
+        return hash;
+    }
+}
@@ -0,0 +1,62 @@
+package de.borisskert.springjwt.authentication.revocation;
+
+import de.borisskert.springjwt.authentication.SecurityProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory denylist of revoked token ids. A Bloom filter answers the common case (token not revoked) without
+ * touching the exact set, which is only consulted for possible matches. Entries are kept until their token expires.
+ */
+@Component
+public class RevokedTokens {
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final Clock clock;
+    private final int expectedTokens;
+    private final Map<String, Instant> expirationsById = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter filter;
+
+    @Autowired
+    public RevokedTokens(SecurityProperties properties, Clock clock) {
+        this.clock = clock;
+        this.expectedTokens = properties.getRevocation().getExpectedTokens();
+        this.filter = new BloomFilter(expectedTokens, FALSE_POSITIVE_RATE);
+    }
+
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !filter.mightContain(tokenId)) {
+            return false;
+        }
+
+        return expirationsById.containsKey(tokenId);
+    }
+
+    public synchronized void add(String tokenId, Instant expiresAt) {
+        expirationsById.put(tokenId, expiresAt);
+        filter.add(tokenId);
+    }
+
+    /**
+     * Forgets the ids of tokens which expired anyway and rebuilds the Bloom filter from the remaining ones
+     */
+    public synchronized void purgeExpired() {
+        Instant now = clock.instant();
+        expirationsById.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedTokens, expirationsById.size() * 2), FALSE_POSITIVE_RATE);
+        expirationsById.keySet().forEach(rebuilt::add);
+
+        filter = rebuilt;
+    }
+
+    public int size() {
+        return expirationsById.size();
+    }
+}
@@ -0,0 +1,94 @@
+package de.borisskert.springjwt.authentication.revocation;
+
+import de.borisskert.springjwt.authentication.revocation.persistence.RevokedTokenEntity;
+import de.borisskert.springjwt.authentication.revocation.persistence.RevokedTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Persists revoked token ids, so the in-memory {@link RevokedTokens} survive restarts. Tokens revoked by other nodes
+ * sharing the database are picked up by a periodic incremental sync.
+ */
+@Service
+public class TokenRevocationService {
+    private static final Logger LOG = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    /*
+     * Each sync reads again the revocations of this period before the previous sync, so neither clock skew between
+     * nodes nor revocations committed after the previous sync are missed. Adding a revoked token again is harmless.
+     */
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final RevokedTokenRepository repository;
+    private final RevokedTokens revokedTokens;
+    private final Clock clock;
+
+    private volatile Instant lastSync;
+
+    @Autowired
+    public TokenRevocationService(RevokedTokenRepository repository, RevokedTokens revokedTokens, Clock clock) {
+        this.repository = repository;
+        this.revokedTokens = revokedTokens;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    public void loadRevokedTokens() {
+        Instant now = clock.instant();
+
+        repository.findAllByExpiresAtAfter(now)
+                .forEach(this::addToRevokedTokens);
+
+        lastSync = now;
+
+        LOG.info("Loaded {} revoked tokens", revokedTokens.size());
+    }
+
+    /**
+     * Adds the tokens revoked since the last sync, by this or any other node
+     */
+    @Scheduled(
+            fixedDelayString = "${app.security.revocation.sync-interval:PT10S}",
+            initialDelayString = "${app.security.revocation.sync-interval:PT10S}"
+    )
+    public void syncRevokedTokens() {
+        Instant now = clock.instant();
+
+        repository.findAllByRevokedAtAfter(lastSync.minus(SYNC_OVERLAP))
+                .forEach(this::addToRevokedTokens);
+
+        lastSync = now;
+    }
+
+    public void revoke(String tokenId, Instant expiresAt) {
+        RevokedTokenEntity entity = new RevokedTokenEntity();
+        entity.setTokenId(tokenId);
+        entity.setExpiresAt(expiresAt);
+        entity.setRevokedAt(clock.instant());
+
+        repository.save(entity);
+        revokedTokens.add(tokenId, expiresAt);
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return revokedTokens.isRevoked(tokenId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.revocation.purge-interval:PT1H}")
+    public void purgeExpired() {
+        repository.deleteExpired(clock.instant());
+        revokedTokens.purgeExpired();
+    }
+
+    private void addToRevokedTokens(RevokedTokenEntity entity) {
+        revokedTokens.add(entity.getTokenId(), entity.getExpiresAt());
+    }
+}
@@ -0,0 +1,92 @@
+package de.borisskert.springjwt.authentication.revocation;
+
+import de.borisskert.springjwt.authentication.SecurityProperties;
+import de.borisskert.springjwt.authentication.jwt.JwtAuthentication;
+import de.borisskert.springjwt.authentication.refresh.RefreshTokenService;
+import de.borisskert.springjwt.vaidation.Uuid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Clock;
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/api/tokens")
+@Validated
+public class TokensEndpoint {
+
+    private final TokenRevocationService revocationService;
+    private final RefreshTokenService refreshTokenService;
+    private final SecurityProperties properties;
+    private final Clock clock;
+
+    @Autowired
+    public TokensEndpoint(
+            TokenRevocationService revocationService,
+            RefreshTokenService refreshTokenService,
+            SecurityProperties properties,
+            Clock clock
+    ) {
+        this.revocationService = revocationService;
+        this.refreshTokenService = refreshTokenService;
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    /**
+     * Revokes the token used for this request and the refresh tokens of the same login, i.e. logs out
+     */
+    @DeleteMapping("/current")
+    public ResponseEntity<?> revokeCurrent() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (!(authentication instanceof JwtAuthentication)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        JwtAuthentication jwtAuthentication = (JwtAuthentication) authentication;
+
+        if (jwtAuthentication.getTokenId() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        revocationService.revoke(jwtAuthentication.getTokenId(), expirationOf(jwtAuthentication));
+
+        if (jwtAuthentication.getSessionId() != null) {
+            refreshTokenService.revokeFamily(jwtAuthentication.getSessionId());
+        }
+
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Revokes any token by its id. The token's expiration is unknown here, so it's kept revoked as long as any token
+     * issued now could be valid.
+     */
+    @DeleteMapping("/{tokenId}")
+    public ResponseEntity<?> revoke(@PathVariable @Uuid String tokenId) {
+        revocationService.revoke(tokenId, latestPossibleExpiration());
+        return ResponseEntity.noContent().build();
+    }
+
+    private Instant expirationOf(JwtAuthentication authentication) {
+        Instant expiresAt = authentication.getExpiresAt();
+
+        if (expiresAt == null) {
+            return latestPossibleExpiration();
+        }
+
+        return expiresAt;
+    }
+
+    private Instant latestPossibleExpiration() {
+        return clock.instant().plusMillis(properties.getExpiration());
+    }
+}
@@ -0,0 +1,24 @@
+package de.borisskert.springjwt.authentication.revocation.persistence;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends CrudRepository<RevokedTokenEntity, String> {
+
+    List<RevokedTokenEntity> findAllByExpiresAtAfter(Instant instant);
+
+    List<RevokedTokenEntity> findAllByRevokedAtAfter(Instant instant);
+
+    @Modifying
+    @Transactional
+    @Query("delete from RevokedTokenEntity t where t.expiresAt <= :instant")
+    int deleteExpired(@Param("instant") Instant instant);
+}
@@ -1,25 +1,47 @@
 package de.borisskert.springjwt.authentication.userdetails;
 
-import de.borisskert.springjwt.user.persistence.UserEntity;
+import de.borisskert.springjwt.user.persistence.RoleRegistry;
+import de.borisskert.springjwt.user.persistence.UserCredentials;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
-class RepositoryUserDetails implements UserDetails {
+public class RepositoryUserDetails implements UserDetails {
 
+    /*
+     * Pre-built authorities for every known role combination, keyed by the shared role lists the persistence layer
+     * hands out, so loading user details doesn't create new authority instances on every login.
+     */
+    private static final Map<List<String>, Collection<GrantedAuthority>> AUTHORITIES_BY_ROLES =
+            RoleRegistry.combinations()
+                    .stream()
+                    .collect(Collectors.toUnmodifiableMap(Function.identity(), RepositoryUserDetails::toAuthorities));
+
+    private final String id;
     private final String username;
     private final String password;
     private final Collection<GrantedAuthority> roles;
 
-    private RepositoryUserDetails(String username, String password, Collection<GrantedAuthority> roles) {
+    private RepositoryUserDetails(String id, String username, String password, Collection<GrantedAuthority> roles) {
+        this.id = id;
         this.username = username;
         this.password = password;
         this.roles = roles;
     }
 
+    /**
+     * The id of the user, which never changes unlike the username
+     */
+    public String getId() {
+        return id;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return roles;
@@ -55,11 +77,29 @@ class RepositoryUserDetails implements UserDetails {
         return true;
     }
 
-    public static RepositoryUserDetails fromEntity(UserEntity entity) {
-        Collection<GrantedAuthority> roles = entity.getRoles().stream()
+    public RepositoryUserDetails withPassword(String password) {
+        return new RepositoryUserDetails(id, username, password, roles);
+    }
+
+    public static RepositoryUserDetails fromCredentials(UserCredentials credentials) {
+        Collection<String> roleNames = credentials.getRoles();
+        Collection<GrantedAuthority> roles = AUTHORITIES_BY_ROLES.get(roleNames);
+
+        if (roles == null) {
+            roles = toAuthorities(roleNames);
+        }
+
+        return new RepositoryUserDetails(
+                credentials.getId(),
+                credentials.getUsername(),
+                credentials.getPassword(),
+                roles
+        );
+    }
+
+    private static Collection<GrantedAuthority> toAuthorities(Collection<String> roles) {
+        return roles.stream()
                 .map(SimpleGrantedAuthority::new)
                 .collect(Collectors.toUnmodifiableSet());
-
-        return new RepositoryUserDetails(entity.getUsername(), entity.getPassword(), roles);
     }
 }
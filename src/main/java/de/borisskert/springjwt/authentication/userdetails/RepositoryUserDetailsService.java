@@ -2,13 +2,20 @@ package de.borisskert.springjwt.authentication.userdetails;
 
 import de.borisskert.springjwt.user.persistence.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
+import static de.borisskert.springjwt.user.UserCaches.USER_DETAILS_BY_USERNAME;
+
 @Service
-public class RepositoryUserDetailsService implements UserDetailsService {
+public class RepositoryUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     private final UserRepository repository;
 
     @Autowired
@@ -17,9 +24,33 @@ public class RepositoryUserDetailsService implements UserDetailsService {
     }
 
     @Override
+    @Cacheable(cacheNames = USER_DETAILS_BY_USERNAME, unless = "#result == null")
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return repository.findOneByUsername(username)
-                .map(RepositoryUserDetails::fromEntity)
+        return repository.findCredentialsFor(username)
+                .map(RepositoryUserDetails::fromCredentials)
                 .orElse(null);
     }
+
+    /**
+     * Loads the user by the id, which never changes unlike the username
+     */
+    public Optional<UserDetails> loadUserById(String id) {
+        return repository.findCredentialsById(id)
+                .map(RepositoryUserDetails::fromCredentials);
+    }
+
+    /**
+     * Stores the rehashed password after a successful login whenever the password encoder requests an upgrade
+     */
+    @Override
+    @CacheEvict(cacheNames = USER_DETAILS_BY_USERNAME, key = "#user.username")
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        repository.updatePasswordFor(user.getUsername(), newPassword);
+
+        if (user instanceof RepositoryUserDetails) {
+            return ((RepositoryUserDetails) user).withPassword(newPassword);
+        }
+
+        return loadUserByUsername(user.getUsername());
+    }
 }
@@ -0,0 +1,38 @@
+package de.borisskert.springjwt.configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.borisskert.springjwt.ApplicationProperties;
+import de.borisskert.springjwt.user.UserCaches;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfiguration {
+
+    @Bean
+    public CacheManager cacheManager(ApplicationProperties properties) {
+        ApplicationProperties.UserCache userCache = properties.getUserCache();
+
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(
+                Caffeine.newBuilder()
+                        .maximumSize(userCache.getMaximumSize())
+                        .expireAfterWrite(userCache.getTimeToLive())
+                        .recordStats()
+        );
+        cacheManager.setCacheNames(List.of(
+                UserCaches.USERS_BY_ID,
+                UserCaches.USERS_BY_USERNAME,
+                UserCaches.USER_DETAILS_BY_USERNAME
+        ));
+        cacheManager.setAllowNullValues(false);
+
+        return cacheManager;
+    }
+}
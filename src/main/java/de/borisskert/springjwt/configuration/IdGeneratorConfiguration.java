@@ -0,0 +1,18 @@
+package de.borisskert.springjwt.configuration;
+
+import de.borisskert.springjwt.ApplicationProperties;
+import de.borisskert.springjwt.user.id.IdGenerator;
+import de.borisskert.springjwt.user.id.IdGenerators;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+public class IdGeneratorConfiguration {
+
+    @Bean
+    public IdGenerator userIdGenerator(ApplicationProperties properties, Clock clock) {
+        return IdGenerators.create(properties.getUserIds().getGeneration(), clock);
+    }
+}
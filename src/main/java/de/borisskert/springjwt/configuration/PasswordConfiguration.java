@@ -1,19 +1,45 @@
 package de.borisskert.springjwt.configuration;
 
+import de.borisskert.springjwt.authentication.SecurityProperties;
+import de.borisskert.springjwt.authentication.password.BCryptCalibration;
+import de.borisskert.springjwt.authentication.password.PasswordEncoders;
+import de.borisskert.springjwt.authentication.password.PasswordEncoding;
+import de.borisskert.springjwt.authentication.password.TimedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.security.SecureRandom;
+import java.time.Duration;
 import java.util.Random;
 
 @Configuration
 public class PasswordConfiguration {
+    private static final Logger LOG = LoggerFactory.getLogger(PasswordConfiguration.class);
 
     @Bean
-    public PasswordEncoder bCryptPasswordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder bCryptPasswordEncoder(SecurityProperties properties, MeterRegistry meterRegistry) {
+        SecurityProperties.Password password = properties.getPassword();
+        int strength = password.getStrength();
+        boolean calibrate = password.getEncoding() == PasswordEncoding.BCRYPT && password.getTargetVerifyTime() != null;
+
+        if (calibrate) {
+            Duration target = Duration.ofMillis(password.getTargetVerifyTime());
+            strength = BCryptCalibration.calibrate(target, strength);
+
+            LOG.info(
+                    "Calibrated BCrypt strength {} for a target verify time of {} ms, pin it by 'app.security.password.strength' for all nodes",
+                    strength,
+                    target.toMillis()
+            );
+        }
+
+        PasswordEncoder encoder = PasswordEncoders.create(password.getEncoding(), strength, !calibrate);
+
+        return new TimedPasswordEncoder(encoder, meterRegistry);
     }
 
     @Bean
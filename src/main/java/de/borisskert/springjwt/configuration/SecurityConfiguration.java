@@ -2,9 +2,11 @@ package de.borisskert.springjwt.configuration;
 
 import com.auth0.spring.security.api.JwtWebSecurityConfigurer;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import de.borisskert.springjwt.authentication.LoginExecutor;
 import de.borisskert.springjwt.authentication.filter.JwtAuthenticationFilter;
 import de.borisskert.springjwt.authentication.filter.JwtAuthorizationFilter;
 import de.borisskert.springjwt.authentication.jwt.JwtTokenService;
+import de.borisskert.springjwt.authentication.refresh.RefreshTokenService;
 import de.borisskert.springjwt.authentication.userdetails.RepositoryUserDetailsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
@@ -17,10 +19,23 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 
 @Configuration
 public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
 
+    /*
+     * Requests to these routes are neither authorized nor is their token verified
+     */
+    private static final RequestMatcher PUBLIC_ROUTES = new OrRequestMatcher(
+            new AntPathRequestMatcher("/api/users/sign-up", HttpMethod.POST.name()),
+            new AntPathRequestMatcher("/api/users/**", HttpMethod.DELETE.name()),
+            new AntPathRequestMatcher("/api/tokens/refresh", HttpMethod.POST.name()),
+            new AntPathRequestMatcher("/actuator/health", HttpMethod.GET.name())
+    );
+
     @Autowired
     private RepositoryUserDetailsService userDetailsService;
 
@@ -36,6 +51,12 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
     @Autowired
     private JwtTokenService jwtTokenService;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private LoginExecutor loginExecutor;
+
     @Override
     protected void configure(HttpSecurity http) throws Exception {
         // @formatter:off
@@ -47,23 +68,36 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
                 .csrf()
                     .disable()
                 .authorizeRequests()
+                    .requestMatchers(PUBLIC_ROUTES).permitAll()
                     .antMatchers(HttpMethod.GET, "/api/users").hasRole("ADMIN")
                     .antMatchers(HttpMethod.GET, "/api/users/me").hasAnyRole("ADMIN", "USER")
                     .antMatchers(HttpMethod.GET, "/api/users/{id}").hasRole("ADMIN")
-                    .antMatchers(HttpMethod.POST, "/api/users/sign-up").permitAll()
                     .antMatchers(HttpMethod.POST, "/api/users").hasRole("ADMIN")
+                    .antMatchers(HttpMethod.POST, "/api/users/import").hasRole("ADMIN")
                     .antMatchers(HttpMethod.PUT, "/api/users/**").hasRole("ADMIN")
                     .antMatchers(HttpMethod.PATCH, "/api/users/{id}").hasRole("ADMIN")
-                    .antMatchers(HttpMethod.DELETE, "/api/users/**").permitAll()
+                    .antMatchers(HttpMethod.DELETE, "/api/tokens/current").authenticated()
+                    .antMatchers(HttpMethod.DELETE, "/api/tokens/{tokenId}").hasRole("ADMIN")
+                    // metrics reveal login, cache and token verification activity
+                    .antMatchers(HttpMethod.GET, "/actuator/prometheus").hasRole("ADMIN")
                     .anyRequest().authenticated()
                     .and()
 
-                .addFilter(new JwtAuthenticationFilter(authenticationManager, objectMapper, jwtTokenService))
-                .addFilter(new JwtAuthorizationFilter(authenticationManager, jwtTokenService))
+                .addFilter(new JwtAuthorizationFilter(authenticationManager, jwtTokenService, PUBLIC_ROUTES))
 
                 .sessionManagement()
                     .sessionCreationPolicy(SessionCreationPolicy.STATELESS);
         // @formatter:on
+
+        // verify-only nodes don't offer any login
+        if (jwtTokenService.canSign()) {
+            http.addFilter(new JwtAuthenticationFilter(
+                    authenticationManager,
+                    objectMapper,
+                    refreshTokenService,
+                    loginExecutor
+            ));
+        }
     }
 
     @Override
@@ -1,7 +1,10 @@
 package de.borisskert.springjwt.user;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import de.borisskert.springjwt.ApplicationProperties;
 import de.borisskert.springjwt.user.persistence.UserEntity;
+import de.borisskert.springjwt.user.persistence.UserView;
+import de.borisskert.springjwt.vaidation.Role;
 import de.borisskert.springjwt.vaidation.Username;
 
 import javax.validation.constraints.Email;
@@ -12,6 +15,7 @@ import java.time.LocalDate;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -30,7 +34,13 @@ public class User {
     private final LocalDate dateOfBirth;
 
     @NotNull
-    private final Collection<String> roles;
+    private final Collection<@Role String> roles;
+
+    /*
+     * Just known for users read from the database, not part of the representation but sent as ETag
+     */
+    @JsonIgnore
+    private Long version;
 
     private User(
             String username,
@@ -60,16 +70,30 @@ public class User {
         return roles;
     }
 
-    public static User fromEntity(UserEntity entity) {
-        List<String> clonedRoles = entity.getRoles()
-                .stream()
-                .collect(Collectors.toUnmodifiableList());
+    @JsonIgnore
+    public Optional<Long> getVersion() {
+        return Optional.ofNullable(version);
+    }
 
-        return new User(
+    public static User fromEntity(UserEntity entity) {
+        User user = new User(
                 entity.getUsername(),
                 entity.getEmail(),
                 entity.getDateOfBirth(),
-                clonedRoles
+                List.copyOf(entity.getRoles())
+        );
+
+        user.version = entity.getVersion();
+
+        return user;
+    }
+
+    public static User fromView(UserView view) {
+        return new User(
+                view.getUsername(),
+                view.getEmail(),
+                view.getDateOfBirth(),
+                List.copyOf(view.getRoles())
         );
     }
 
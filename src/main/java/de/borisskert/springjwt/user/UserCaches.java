@@ -0,0 +1,13 @@
+package de.borisskert.springjwt.user;
+
+/**
+ * Names of the caches holding looked up users, invalidated by every write in {@link UserService}
+ */
+public final class UserCaches {
+    public static final String USERS_BY_ID = "usersById";
+    public static final String USERS_BY_USERNAME = "usersByUsername";
+    public static final String USER_DETAILS_BY_USERNAME = "userDetailsByUsername";
+
+    private UserCaches() {
+    }
+}
@@ -0,0 +1,94 @@
+package de.borisskert.springjwt.user;
+
+import java.util.List;
+import java.util.Objects;
+
+public class UserImportResult {
+
+    private final int imported;
+
+    private final List<RowError> errors;
+
+    private UserImportResult(int imported, List<RowError> errors) {
+        this.imported = imported;
+        this.errors = errors;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public static UserImportResult from(int imported, List<RowError> errors) {
+        return new UserImportResult(imported, List.copyOf(errors));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        UserImportResult that = (UserImportResult) o;
+        return imported == that.imported &&
+                Objects.equals(errors, that.errors);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(imported, errors);
+    }
+
+    /**
+     * A user which has not been imported
+     */
+    public static class RowError {
+
+        /**
+         * Position of the user within the import, starting with 0
+         */
+        private final int row;
+
+        private final String username;
+
+        private final String message;
+
+        private RowError(int row, String username, String message) {
+            this.row = row;
+            this.username = username;
+            this.message = message;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public static RowError of(int row, String username, String message) {
+            return new RowError(row, username, message);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            RowError rowError = (RowError) o;
+            return row == rowError.row &&
+                    Objects.equals(username, rowError.username) &&
+                    Objects.equals(message, rowError.message);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(row, username, message);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package de.borisskert.springjwt.user;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.borisskert.springjwt.ApplicationProperties;
+import de.borisskert.springjwt.user.UserImportResult.RowError;
+import de.borisskert.springjwt.user.id.IdGenerator;
+import de.borisskert.springjwt.user.persistence.UserBatchRepository;
+import de.borisskert.springjwt.user.persistence.UserEntity;
+import de.borisskert.springjwt.user.persistence.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static de.borisskert.springjwt.user.UserCaches.USERS_BY_USERNAME;
+import static de.borisskert.springjwt.user.UserCaches.USER_DETAILS_BY_USERNAME;
+
+/**
+ * Imports users from a JSON array or a NDJSON stream. Users are read, validated and written batch by batch, so just
+ * one batch is held in memory at the same time. Users which cannot be imported are reported instead of aborting the
+ * whole import.
+ */
+@Service
+public class UserImportService {
+
+    private final UserRepository repository;
+    private final UserBatchRepository batchRepository;
+    private final IdGenerator idGenerator;
+    private final ObjectMapper jsonMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    @Autowired
+    public UserImportService(
+            UserRepository repository,
+            UserBatchRepository batchRepository,
+            IdGenerator idGenerator,
+            ObjectMapper jsonMapper,
+            Validator validator,
+            PlatformTransactionManager transactionManager,
+            ApplicationProperties properties
+    ) {
+        this.repository = repository;
+        this.batchRepository = batchRepository;
+        this.idGenerator = idGenerator;
+        this.jsonMapper = jsonMapper;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = properties.getUserImport().getBatchSize();
+    }
+
+    /*
+     * Former lookups of the imported usernames may have been cached as missing
+     */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = USERS_BY_USERNAME, allEntries = true),
+            @CacheEvict(cacheNames = USER_DETAILS_BY_USERNAME, allEntries = true)
+    })
+    public UserImportResult importUsers(InputStream json) throws IOException {
+        List<RowError> errors = new ArrayList<>();
+        List<Row> batch = new ArrayList<>(batchSize);
+        int imported = 0;
+        int index = 0;
+
+        try (MappingIterator<User> users = jsonMapper.readerFor(User.class).readValues(json)) {
+            while (users.hasNextValue()) {
+                readRow(users, index, batch, errors);
+                index++;
+
+                if (batch.size() >= batchSize) {
+                    imported += insert(batch, errors);
+                    batch.clear();
+                }
+            }
+        } catch (JsonParseException e) {
+            errors.add(RowError.of(index, null, "Malformed JSON: " + e.getOriginalMessage()));
+        }
+
+        imported += insert(batch, errors);
+        errors.sort(Comparator.comparingInt(RowError::getRow));
+
+        return UserImportResult.from(imported, errors);
+    }
+
+    private void readRow(MappingIterator<User> users, int index, List<Row> batch, List<RowError> errors) throws IOException {
+        User user;
+
+        try {
+            user = users.nextValue();
+        } catch (JsonParseException e) {
+            throw e;
+        } catch (JsonMappingException e) {
+            errors.add(RowError.of(index, null, "Cannot read user: " + e.getOriginalMessage()));
+            return;
+        }
+
+        Set<ConstraintViolation<User>> violations = validator.validate(user);
+
+        if (!violations.isEmpty()) {
+            errors.add(RowError.of(index, user.getUsername(), describe(violations)));
+        } else {
+            batch.add(new Row(index, user));
+        }
+    }
+
+    /*
+     * The usernames of the whole batch are checked by one query, the usernames within the batch against each other
+     */
+    private int insert(List<Row> batch, List<RowError> errors) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Set<String> usernames = batch.stream()
+                .map(row -> row.user.getUsername())
+                .collect(Collectors.toSet());
+
+        Set<String> takenUsernames = new HashSet<>(repository.findExistingUsernames(usernames));
+        List<Row> rows = new ArrayList<>(batch.size());
+
+        for (Row row : batch) {
+            String username = row.user.getUsername();
+
+            if (takenUsernames.add(username)) {
+                rows.add(row);
+            } else {
+                errors.add(RowError.of(row.index, username, "Username '" + username + "' already exists"));
+            }
+        }
+
+        List<UserEntity> entities = rows.stream()
+                .map(row -> row.user.toEntityWithId(createNewId()))
+                .collect(Collectors.toUnmodifiableList());
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> batchRepository.insertAll(entities));
+            return entities.size();
+        } catch (DataIntegrityViolationException e) {
+            return insertOneByOne(rows, entities, errors);
+        }
+    }
+
+    /*
+     * Finds the users which violated a constraint not checked beforehand, like a duplicated email or a username taken
+     * in the meantime, after their batch has been rolled back
+     */
+    private int insertOneByOne(List<Row> rows, List<UserEntity> entities, List<RowError> errors) {
+        int inserted = 0;
+
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+
+            try {
+                batchRepository.insert(entities.get(i));
+                inserted++;
+            } catch (DataIntegrityViolationException e) {
+                errors.add(RowError.of(row.index, row.user.getUsername(), "User conflicts with an existing user"));
+            }
+        }
+
+        return inserted;
+    }
+
+    private String createNewId() {
+        return idGenerator.nextId();
+    }
+
+    private static String describe(Set<ConstraintViolation<User>> violations) {
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private static class Row {
+        private final int index;
+        private final User user;
+
+        private Row(int index, User user) {
+            this.index = index;
+            this.user = user;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package de.borisskert.springjwt.user;
 
+import de.borisskert.springjwt.vaidation.Role;
 import de.borisskert.springjwt.vaidation.Username;
 
 import javax.validation.constraints.Email;
@@ -23,7 +24,7 @@ public class UserPatch {
     private final LocalDate dateOfBirth;
 
     @NotNull
-    private final Set<String> roles;
+    private final Set<@Role String> roles;
 
     private UserPatch(String username, String email, LocalDate dateOfBirth, Set<String> roles) {
         this.username = username;
@@ -1,9 +1,18 @@
 package de.borisskert.springjwt.user;
 
 import de.borisskert.springjwt.user.exception.UserAlreadyExistsException;
+import de.borisskert.springjwt.user.exception.UserNotFoundException;
+import de.borisskert.springjwt.user.exception.UserVersionMismatchException;
+import de.borisskert.springjwt.user.id.IdGenerator;
 import de.borisskert.springjwt.user.persistence.UserEntity;
 import de.borisskert.springjwt.user.persistence.UserRepository;
+import de.borisskert.springjwt.user.persistence.UserUpdateRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -12,61 +21,103 @@ import org.springframework.web.bind.annotation.RequestParam;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import static de.borisskert.springjwt.user.UserCaches.USERS_BY_ID;
+import static de.borisskert.springjwt.user.UserCaches.USERS_BY_USERNAME;
+import static de.borisskert.springjwt.user.UserCaches.USER_DETAILS_BY_USERNAME;
+
 @Service
 public class UserService {
+    public static final String FIRST_USERNAME = "";
 
     private final UserRepository repository;
+    private final UserUpdateRepository updateRepository;
     private final PasswordEncoder passwordEncoder;
+    private final IdGenerator idGenerator;
 
     @Autowired
-    public UserService(UserRepository repository, PasswordEncoder passwordEncoder) {
+    public UserService(
+            UserRepository repository,
+            UserUpdateRepository updateRepository,
+            PasswordEncoder passwordEncoder,
+            IdGenerator idGenerator
+    ) {
         this.repository = repository;
+        this.updateRepository = updateRepository;
         this.passwordEncoder = passwordEncoder;
+        this.idGenerator = idGenerator;
     }
 
-    public Collection<User> getAllUsers() {
-        List<UserEntity> entities = repository.findAll();
-        return entities.stream()
-                .map(User::fromEntity)
+    /**
+     * @param afterUsername the username of the last user of the previous page, an empty string for the first page
+     */
+    public List<User> getUsersAfter(String afterUsername, int limit) {
+        return repository.findViewsAfter(afterUsername, PageRequest.of(0, limit))
+                .stream()
+                .map(User::fromView)
                 .collect(Collectors.toUnmodifiableList());
     }
 
+    /**
+     * Walks through all users page by page, so just one page is held in memory at the same time
+     */
+    public void forEachUser(int batchSize, Consumer<User> consumer) {
+        String after = FIRST_USERNAME;
+        List<User> batch;
+
+        do {
+            batch = getUsersAfter(after, batchSize);
+            batch.forEach(consumer);
+
+            if (!batch.isEmpty()) {
+                after = batch.get(batch.size() - 1).getUsername();
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    @Cacheable(cacheNames = USERS_BY_ID, unless = "#result == null")
     public Optional<User> getUserById(@PathVariable String id) {
         return repository.findById(id)
                 .map(User::fromEntity);
     }
 
+    @Cacheable(cacheNames = USERS_BY_USERNAME, unless = "#result == null")
     public Optional<User> findByUsername(@RequestParam String username) {
         return repository.findOneByUsername(username)
                 .map(User::fromEntity);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = USERS_BY_USERNAME, key = "#user.username"),
+            @CacheEvict(cacheNames = USER_DETAILS_BY_USERNAME, key = "#user.username")
+    })
     public String create(User user) {
-        throwIfUsernameExists(user.getUsername());
-
         String id = createNewId();
         UserEntity entity = user.toEntityWithId(id);
 
-        repository.save(entity);
+        insert(entity);
 
         return id;
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = USERS_BY_ID, key = "#id"),
+            @CacheEvict(cacheNames = USERS_BY_USERNAME, key = "#user.username"),
+            @CacheEvict(cacheNames = USER_DETAILS_BY_USERNAME, key = "#user.username")
+    })
     public void insert(String id, User user) {
-        throwIfIdExists(id);
-        throwIfUsernameExists(user.getUsername());
-
         UserEntity entity = user.toEntityWithId(id);
 
-        repository.save(entity);
+        insert(entity);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = USERS_BY_USERNAME, key = "#user.username"),
+            @CacheEvict(cacheNames = USER_DETAILS_BY_USERNAME, key = "#user.username")
+    })
     public String signUp(UserToSignUp user) {
-        throwIfUsernameExists(user.getUsername());
-
         String id = createNewId();
         UserEntity entity = user.toEntityWithId(id);
 
@@ -74,46 +125,110 @@ public class UserService {
         entity.setPassword(encryptedPassword);
         entity.setRoles(List.of("USER"));
 
-        repository.save(entity);
+        insert(entity);
 
         return id;
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = USERS_BY_USERNAME, key = "#user.username"),
+            @CacheEvict(cacheNames = USER_DETAILS_BY_USERNAME, key = "#user.username")
+    })
     public String create(UserWithPassword user) {
-        throwIfUsernameExists(user.getUsername());
-
         String id = createNewId();
         UserEntity entity = user.toEntityWithId(id);
 
         String encryptedPassword = passwordEncoder.encode(user.getRawPassword());
         entity.setPassword(encryptedPassword);
 
-        repository.save(entity);
+        insert(entity);
 
         return id;
     }
 
     private String createNewId() {
-        return UUID.randomUUID().toString();
+        return idGenerator.nextId();
     }
 
-    private void throwIfIdExists(String id) {
-        if (repository.findById(id).isPresent()) {
-            throw new UserAlreadyExistsException("Id '" + id + "' already exists");
+    /*
+     * Relies on the unique constraints of the user table instead of looking for an existing user beforehand, so a new
+     * user is written by a single round trip and concurrent duplicates are rejected by the database
+     */
+    private void insert(UserEntity entity) {
+        try {
+            repository.saveAndFlush(entity);
+        } catch (DataIntegrityViolationException e) {
+            if (repository.existsById(entity.getId())) {
+                throw new UserAlreadyExistsException("Id '" + entity.getId() + "' already exists");
+            }
+
+            throw toAlreadyExistsException(entity.getId(), entity.getUsername(), entity.getEmail(), e);
         }
     }
 
-    private void throwIfUsernameExists(String username) {
-        if (repository.findOneByUsername(username).isPresent()) {
-            throw new UserAlreadyExistsException("Username '" + username + "' already exists");
+    /*
+     * Just on conflicts: finds out which unique value is already taken by another user than the written one, which may
+     * keep its own username or email when being patched
+     */
+    private RuntimeException toAlreadyExistsException(
+            String userId,
+            String username,
+            String email,
+            DataIntegrityViolationException e
+    ) {
+        if (username != null && repository.existsByUsernameAndIdNot(username, userId)) {
+            return new UserAlreadyExistsException("Username '" + username + "' already exists");
         }
+
+        if (email != null && repository.existsByEmailAndIdNot(email, userId)) {
+            return new UserAlreadyExistsException("Email '" + email + "' already exists");
+        }
+
+        return e;
     }
 
-    public User getMyUser() {
-        return null;
+    /**
+     * Updates the specified values of the user by a single statement, without loading the user before. Missing values
+     * and empty roles stay unchanged. A patch may change the username, so the old username is unknown here and all
+     * users by username are evicted.
+     *
+     * @param expectedVersion the version the user must still have, any version if null
+     */
+    @Caching(evict = {
+            @CacheEvict(cacheNames = USERS_BY_ID, key = "#userId"),
+            @CacheEvict(cacheNames = USERS_BY_USERNAME, allEntries = true),
+            @CacheEvict(cacheNames = USER_DETAILS_BY_USERNAME, allEntries = true)
+    })
+    public void patch(String userId, UserPatch patch, Long expectedVersion) {
+        Collection<String> roles = patch.getRoles().isEmpty() ? null : patch.getRoles();
+        boolean updated;
+
+        try {
+            updated = updateRepository.update(
+                    userId,
+                    expectedVersion,
+                    patch.getUsername(),
+                    patch.getEmail(),
+                    patch.getDateOfBirth(),
+                    roles
+            );
+        } catch (DataIntegrityViolationException e) {
+            throw toAlreadyExistsException(userId, patch.getUsername(), patch.getEmail(), e);
+        }
+
+        if (!updated) {
+            throw toNotUpdatedException(userId, expectedVersion);
+        }
     }
 
-    public void patch(String userId, UserPatch patch) {
+    /*
+     * Just if nothing has been updated: finds out whether the user is missing or has been modified in the meantime
+     */
+    private RuntimeException toNotUpdatedException(String userId, Long expectedVersion) {
+        if (expectedVersion != null && repository.existsById(userId)) {
+            return new UserVersionMismatchException("User with id '" + userId + "' is not in version " + expectedVersion);
+        }
 
+        return new UserNotFoundException("User with id '" + userId + "' not found");
     }
 }
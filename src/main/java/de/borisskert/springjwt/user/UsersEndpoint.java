@@ -1,8 +1,12 @@
 package de.borisskert.springjwt.user;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.borisskert.springjwt.user.exception.InvalidIfMatchException;
 import de.borisskert.springjwt.vaidation.Username;
 import de.borisskert.springjwt.vaidation.Uuid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,38 +15,94 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
-import java.util.Collection;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @RestController
 @RequestMapping("/api/users")
 @Validated
 public class UsersEndpoint {
+    public static final String NDJSON_VALUE = "application/x-ndjson";
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String DEFAULT_PAGE_SIZE = "100";
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_BATCH_SIZE = 500;
+    private static final int NEW_LINE = '\n';
+    private static final Pattern VERSION_ETAG = Pattern.compile("(?:W/)?\"(\\d{1,18})\"");
 
     private final UserService userService;
+    private final UserImportService userImportService;
     private final MeService meService;
+    private final ObjectMapper jsonMapper;
 
     @Autowired
-    public UsersEndpoint(UserService userService, MeService meService) {
+    public UsersEndpoint(
+            UserService userService,
+            UserImportService userImportService,
+            MeService meService,
+            ObjectMapper jsonMapper
+    ) {
         this.userService = userService;
+        this.userImportService = userImportService;
         this.meService = meService;
+        this.jsonMapper = jsonMapper;
     }
 
+    /**
+     * Provides one page of users ordered by username, the first one if no cursor is specified. Clients not specifying a
+     * limit get the first {@value DEFAULT_PAGE_SIZE} users, never the whole table at once.
+     */
     @GetMapping
-    public ResponseEntity<Collection<User>> getUsers() {
-        Collection<User> allUsers = userService.getAllUsers();
-        return ResponseEntity.ok(allUsers);
+    public ResponseEntity<List<User>> getUsersPage(
+            @RequestParam(defaultValue = UserService.FIRST_USERNAME) String after,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Min(1) @Max(MAX_PAGE_SIZE) int limit
+    ) {
+        List<User> page = userService.getUsersAfter(after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+        if (page.size() == limit) {
+            String lastUsername = page.get(page.size() - 1).getUsername();
+            response.header(NEXT_CURSOR_HEADER, lastUsername);
+        }
+
+        return response.body(page);
+    }
+
+    @GetMapping(produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        StreamingResponseBody body = outputStream -> {
+            try {
+                userService.forEachUser(STREAM_BATCH_SIZE, user -> writeLine(outputStream, user));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.valueOf(NDJSON_VALUE))
+                .body(body);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<?> getUserById(@PathVariable @Uuid String id) {
         return userService.getUserById(id)
-                .map(ResponseEntity::ok)
+                .map(UsersEndpoint::withETag)
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -81,9 +141,60 @@ public class UsersEndpoint {
                 .build();
     }
 
+    /**
+     * Imports a JSON array or a NDJSON stream of users, reporting the users which could not be imported
+     */
+    @PostMapping(path = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON_VALUE})
+    public ResponseEntity<UserImportResult> importUsers(InputStream body) throws IOException {
+        UserImportResult result = userImportService.importUsers(body);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Patches the user just if it is still in the version of the optional If-Match header, responds 412 otherwise.
+     * Responds 400 for a malformed If-Match header or a list of ETags, since a user has just one current version.
+     */
     @PatchMapping("/{userId}")
-    public ResponseEntity<?> patch(@PathVariable @Uuid String userId, @RequestBody @Valid UserPatch patch) {
-        userService.patch(userId, patch);
+    public ResponseEntity<?> patch(
+            @PathVariable @Uuid String userId,
+            @RequestBody @Valid UserPatch patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        userService.patch(userId, patch, toVersion(ifMatch));
         return ResponseEntity.noContent().build();
     }
+
+    private static ResponseEntity<User> withETag(User user) {
+        return user.getVersion()
+                .map(version -> ResponseEntity.ok().eTag(version.toString()).body(user))
+                .orElseGet(() -> ResponseEntity.ok(user));
+    }
+
+    /*
+     * Accepts a single strong or weak ETag like "3" or W/"3", no version for a missing header or "*"
+     */
+    private static Long toVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        Matcher matcher = VERSION_ETAG.matcher(ifMatch.trim());
+
+        if (!matcher.matches()) {
+            throw new InvalidIfMatchException(
+                    "Invalid If-Match header '" + ifMatch + "', expected a single ETag like \"3\""
+            );
+        }
+
+        return Long.valueOf(matcher.group(1));
+    }
+
+    private void writeLine(OutputStream outputStream, User user) {
+        try {
+            outputStream.write(jsonMapper.writeValueAsBytes(user));
+            outputStream.write(NEW_LINE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -0,0 +1,11 @@
+package de.borisskert.springjwt.user.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code = HttpStatus.BAD_REQUEST)
+public class InvalidIfMatchException extends RuntimeException {
+    public InvalidIfMatchException(String message) {
+        super(message);
+    }
+}
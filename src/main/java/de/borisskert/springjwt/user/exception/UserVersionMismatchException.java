@@ -0,0 +1,11 @@
+package de.borisskert.springjwt.user.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code = HttpStatus.PRECONDITION_FAILED)
+public class UserVersionMismatchException extends RuntimeException {
+    public UserVersionMismatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package de.borisskert.springjwt.user.id;
+
+/**
+ * The supported strategies to create user ids
+ */
+public enum IdGeneration {
+    /**
+     * Version 7 UUIDs, appended to the primary key index in order of their creation millisecond
+     */
+    TIME_ORDERED,
+
+    /**
+     * Version 4 UUIDs, spread randomly across the primary key index
+     */
+    RANDOM
+}
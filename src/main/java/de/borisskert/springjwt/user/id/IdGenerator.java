@@ -0,0 +1,11 @@
+package de.borisskert.springjwt.user.id;
+
+/**
+ * Creates the ids of new users. Implementations are called concurrently by all request threads, so they must neither
+ * block nor ever repeat an id.
+ */
+@FunctionalInterface
+public interface IdGenerator {
+
+    String nextId();
+}
@@ -0,0 +1,20 @@
+package de.borisskert.springjwt.user.id;
+
+import java.time.Clock;
+
+public class IdGenerators {
+
+    private IdGenerators() {
+    }
+
+    public static IdGenerator create(IdGeneration generation, Clock clock) {
+        switch (generation) {
+            case TIME_ORDERED:
+                return new TimeOrderedUuidGenerator(clock, new ThreadLocalEntropy());
+            case RANDOM:
+                return new RandomUuidGenerator(new ThreadLocalEntropy());
+            default:
+                throw new IllegalArgumentException("Unknown id generation '" + generation + "'");
+        }
+    }
+}
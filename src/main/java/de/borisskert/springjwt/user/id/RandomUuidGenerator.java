@@ -0,0 +1,47 @@
+package de.borisskert.springjwt.user.id;
+
+import java.util.UUID;
+
+/**
+ * Creates version 4 UUIDs just like {@link UUID#randomUUID()}, but from thread-local entropy
+ */
+public class RandomUuidGenerator implements IdGenerator {
+    private static final long VERSION_4 = 0x4000L;
+    private static final long VERSION_MASK = 0xFFFFFFFFFFFF0FFFL;
+    private static final long VARIANT_RFC_4122 = 0x8000000000000000L;
+    private static final long VARIANT_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    private final ThreadLocalEntropy entropy;
+
+    public RandomUuidGenerator(ThreadLocalEntropy entropy) {
+        this.entropy = entropy;
+    }
+
+    @Override
+    public String nextId() {
+        return next().toString();
+    }
+
+    public UUID next() {
+        byte[] randomBytes = new byte[16];
+        entropy.nextBytes(randomBytes);
+
+        long mostSignificantBits = toLong(randomBytes, 0);
+        long leastSignificantBits = toLong(randomBytes, 8);
+
+        return new UUID(
+                (mostSignificantBits & VERSION_MASK) | VERSION_4,
+                (leastSignificantBits & VARIANT_MASK) | VARIANT_RFC_4122
+        );
+    }
+
+    private static long toLong(byte[] bytes, int offset) {
+        long value = 0L;
+
+        for (int i = offset; i < offset + 8; i++) {
+            value = (value << 8) | (bytes[i] & 0xFFL);
+        }
+
+        return value;
+    }
+}
@@ -0,0 +1,50 @@
+package de.borisskert.springjwt.user.id;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+/**
+ * Cryptographically strong random bytes without contention: {@link java.util.UUID#randomUUID()} shares one
+ * SecureRandom between all threads, and the default NativePRNG even serializes all its instances on one lock. Instead,
+ * each thread gets its own DRBG instance, seeded independently from the system's entropy source. Random bytes are
+ * drawn in blocks, since each DRBG call costs about as much as one id.
+ */
+public class ThreadLocalEntropy {
+    private static final String ALGORITHM = "DRBG";
+    private static final int BLOCK_SIZE = 512;
+
+    private final ThreadLocal<Block> blocks = ThreadLocal.withInitial(Block::new);
+
+    public void nextBytes(byte[] bytes) {
+        blocks.get().nextBytes(bytes);
+    }
+
+    private static class Block {
+        private final SecureRandom random = createRandom();
+        private final byte[] bytes = new byte[BLOCK_SIZE];
+        private int position = BLOCK_SIZE;
+
+        void nextBytes(byte[] target) {
+            if (target.length > BLOCK_SIZE) {
+                random.nextBytes(target);
+                return;
+            }
+
+            if (position + target.length > BLOCK_SIZE) {
+                random.nextBytes(bytes);
+                position = 0;
+            }
+
+            System.arraycopy(bytes, position, target, 0, target.length);
+            position += target.length;
+        }
+    }
+
+    private static SecureRandom createRandom() {
+        try {
+            return SecureRandom.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot create " + ALGORITHM + " random", e);
+        }
+    }
+}
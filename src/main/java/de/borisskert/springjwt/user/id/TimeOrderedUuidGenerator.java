@@ -0,0 +1,49 @@
+package de.borisskert.springjwt.user.id;
+
+import java.time.Clock;
+import java.util.UUID;
+
+/**
+ * Creates version 7 UUIDs: the leading 48 bits are the unix time in milliseconds, followed by 74 random bits. Ids
+ * created in a later millisecond sort after earlier ones, as UUIDs and as their lowercase strings, so new users are
+ * appended to the end of the primary key index instead of being inserted at random positions. Ids created within the
+ * same millisecond are not ordered among each other, since there is no counter shared between threads.
+ *
+ * @see <a href="https://datatracker.ietf.org/doc/html/draft-peabody-dispatch-new-uuid-format">New UUID Formats</a>
+ */
+public class TimeOrderedUuidGenerator implements IdGenerator {
+    private static final long VERSION_7 = 0x7000L;
+    private static final long VARIANT_RFC_4122 = 0x8000000000000000L;
+    private static final long RANDOM_B_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    private final Clock clock;
+    private final ThreadLocalEntropy entropy;
+
+    public TimeOrderedUuidGenerator(Clock clock, ThreadLocalEntropy entropy) {
+        this.clock = clock;
+        this.entropy = entropy;
+    }
+
+    @Override
+    public String nextId() {
+        return next().toString();
+    }
+
+    public UUID next() {
+        long millis = clock.millis();
+        byte[] randomBytes = new byte[10];
+        entropy.nextBytes(randomBytes);
+
+        long randomA = ((randomBytes[0] & 0x0FL) << 8) | (randomBytes[1] & 0xFFL);
+        long randomB = 0L;
+
+        for (int i = 2; i < randomBytes.length; i++) {
+            randomB = (randomB << 8) | (randomBytes[i] & 0xFFL);
+        }
+
+        long mostSignificantBits = (millis << 16) | VERSION_7 | randomA;
+        long leastSignificantBits = VARIANT_RFC_4122 | (randomB & RANDOM_B_MASK);
+
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+}
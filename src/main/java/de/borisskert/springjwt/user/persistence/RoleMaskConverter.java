@@ -0,0 +1,35 @@
+package de.borisskert.springjwt.user.persistence;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Stores roles as a bit mask according to the {@link RoleRegistry}
+ */
+@Converter
+public class RoleMaskConverter implements AttributeConverter<Collection<String>, Integer> {
+
+    @Override
+    public Integer convertToDatabaseColumn(Collection<String> roles) {
+        int mask = 0;
+
+        if (roles != null) {
+            for (String role : roles) {
+                mask |= RoleRegistry.bitOf(role);
+            }
+        }
+
+        return mask;
+    }
+
+    @Override
+    public Collection<String> convertToEntityAttribute(Integer mask) {
+        if (mask == null) {
+            return List.of();
+        }
+
+        return RoleRegistry.rolesOf(mask);
+    }
+}
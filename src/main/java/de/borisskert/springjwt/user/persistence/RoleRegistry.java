@@ -0,0 +1,79 @@
+package de.borisskert.springjwt.user.persistence;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The closed set of known roles. A role's position is its bit within the persisted role mask, so new roles must only
+ * be appended.
+ */
+public final class RoleRegistry {
+    public static final List<String> ROLES = List.of(
+            "ADMIN",
+            "USER"
+    );
+
+    /*
+     * Every possible role combination indexed by its mask, so converting a mask never allocates and all entities with
+     * the same roles share one immutable list instance.
+     */
+    private static final List<List<String>> COMBINATIONS = IntStream.range(0, 1 << ROLES.size())
+            .mapToObj(RoleRegistry::buildRoles)
+            .collect(Collectors.toUnmodifiableList());
+
+    private RoleRegistry() {
+    }
+
+    public static int bitOf(String role) {
+        int index = ROLES.indexOf(role);
+
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown role '" + role + "'");
+        }
+
+        return 1 << index;
+    }
+
+    /**
+     * All role combinations containing the specified role, e.g. to query the indexed role mask column by equality
+     */
+    public static List<Collection<String>> combinationsContaining(String role) {
+        int bit = bitOf(role);
+        int combinationCount = 1 << ROLES.size();
+
+        return IntStream.range(0, combinationCount)
+                .filter(mask -> (mask & bit) != 0)
+                .mapToObj(COMBINATIONS::get)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * All possible role combinations, the shared instances also returned by {@link #rolesOf(int)}
+     */
+    public static List<List<String>> combinations() {
+        return COMBINATIONS;
+    }
+
+    public static List<String> rolesOf(int mask) {
+        if (mask < 0 || mask >= COMBINATIONS.size()) {
+            throw new IllegalArgumentException("Unknown role mask " + mask);
+        }
+
+        return COMBINATIONS.get(mask);
+    }
+
+    private static List<String> buildRoles(int mask) {
+        List<String> roles = new ArrayList<>(Integer.bitCount(mask));
+
+        for (int index = 0; index < ROLES.size(); index++) {
+            if ((mask & 1 << index) != 0) {
+                roles.add(ROLES.get(index));
+            }
+        }
+
+        return List.copyOf(roles);
+    }
+}
@@ -0,0 +1,61 @@
+package de.borisskert.springjwt.user.persistence;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Inserts many users by JDBC batches, bypassing the persistence context which would select each user with an assigned
+ * id before inserting it
+ */
+@Repository
+public class UserBatchRepository {
+    private static final RoleMaskConverter ROLE_MASK_CONVERTER = new RoleMaskConverter();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String insertUser;
+
+    @Autowired
+    UserBatchRepository(JdbcTemplate jdbcTemplate, UserTable userTable) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.insertUser = insertStatementFor(userTable.getName());
+    }
+
+    public void insertAll(List<UserEntity> entities) {
+        jdbcTemplate.batchUpdate(insertUser, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int index) throws SQLException {
+                setUser(statement, entities.get(index));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return entities.size();
+            }
+        });
+    }
+
+    public void insert(UserEntity entity) {
+        jdbcTemplate.update(insertUser, statement -> setUser(statement, entity));
+    }
+
+    static String insertStatementFor(String tableName) {
+        return "insert into " + tableName + " (id, username, email, date_of_birth, password, role_mask)"
+                + " values (?, ?, ?, ?, ?, ?)";
+    }
+
+    private static void setUser(PreparedStatement statement, UserEntity entity) throws SQLException {
+        statement.setString(1, entity.getId());
+        statement.setString(2, entity.getUsername());
+        statement.setString(3, entity.getEmail());
+        statement.setDate(4, Date.valueOf(entity.getDateOfBirth()));
+        statement.setString(5, entity.getPassword());
+        statement.setInt(6, ROLE_MASK_CONVERTER.convertToDatabaseColumn(entity.getRoles()));
+    }
+}
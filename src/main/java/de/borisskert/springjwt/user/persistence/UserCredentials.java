@@ -0,0 +1,36 @@
+package de.borisskert.springjwt.user.persistence;
+
+import java.util.Collection;
+
+/**
+ * Read-only projection of the columns needed to authenticate a user
+ */
+public class UserCredentials {
+    private final String id;
+    private final String username;
+    private final String password;
+    private final Collection<String> roles;
+
+    public UserCredentials(String id, String username, String password, Collection<String> roles) {
+        this.id = id;
+        this.username = username;
+        this.password = password;
+        this.roles = roles;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public Collection<String> getRoles() {
+        return roles;
+    }
+}
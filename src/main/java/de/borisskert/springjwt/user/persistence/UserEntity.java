@@ -1,9 +1,16 @@
 package de.borisskert.springjwt.user.persistence;
 
+import org.springframework.data.domain.Persistable;
+
+import javax.persistence.Column;
 import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.Id;
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
 import javax.persistence.Table;
+import javax.persistence.Transient;
+import javax.persistence.Version;
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
@@ -14,7 +21,7 @@ import java.util.Set;
 
 @Entity
 @Table(name = "user")
-public class UserEntity {
+public class UserEntity implements Persistable<String> {
 
     @Id
     private String id;
@@ -32,9 +39,30 @@ public class UserEntity {
 
     private String password;
 
-    @Convert(converter = JsonStringArrayConverter.class)
+    @Column(name = "role_mask")
+    @Convert(converter = RoleMaskConverter.class)
     private Collection<String> roles = Set.of();
 
+    @Version
+    private Long version;
+
+    /*
+     * Ids are assigned before saving, so saving a new user has to be told apart from updating without loading it first
+     */
+    @Transient
+    private boolean persisted;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+
     public String getId() {
         return id;
     }
@@ -82,4 +110,12 @@ public class UserEntity {
     public void setRoles(Collection<String> groups) {
         this.roles = groups;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -1,20 +1,60 @@
 package de.borisskert.springjwt.user.persistence;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
-public interface UserRepository extends CrudRepository<UserEntity, String> {
+public interface UserRepository extends JpaRepository<UserEntity, String> {
 
     Optional<UserEntity> findOneByUsername(String username);
 
-    List<UserEntity> findAll();
+    boolean existsByUsernameAndIdNot(String username, String id);
+
+    boolean existsByEmailAndIdNot(String email, String id);
+
+    /**
+     * The subset of the specified usernames already taken, checking a whole batch of users by one query
+     */
+    @Query("select u.username from UserEntity u where u.username in :usernames")
+    Set<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
 
     @Query("select u.password from UserEntity u where u.username = :username")
     Optional<String> findPasswordFor(@Param("username") String username);
+
+    /**
+     * Keyset pagination on the unique username index: the page of users following the specified username
+     */
+    @Query("select new de.borisskert.springjwt.user.persistence.UserView(u.username, u.email, u.dateOfBirth, u.roles)"
+            + " from UserEntity u where u.username > :after order by u.username")
+    List<UserView> findViewsAfter(@Param("after") String afterUsername, Pageable pageable);
+
+    /**
+     * @param roleSets all role combinations to look for, see {@link RoleRegistry#combinationsContaining(String)}
+     */
+    @Query("select new de.borisskert.springjwt.user.persistence.UserView(u.username, u.email, u.dateOfBirth, u.roles)"
+            + " from UserEntity u where u.roles in :roleSets order by u.username")
+    List<UserView> findViewsByRolesIn(@Param("roleSets") Collection<Collection<String>> roleSets);
+
+    @Query("select new de.borisskert.springjwt.user.persistence.UserCredentials(u.id, u.username, u.password, u.roles)"
+            + " from UserEntity u where u.username = :username")
+    Optional<UserCredentials> findCredentialsFor(@Param("username") String username);
+
+    @Query("select new de.borisskert.springjwt.user.persistence.UserCredentials(u.id, u.username, u.password, u.roles)"
+            + " from UserEntity u where u.id = :id")
+    Optional<UserCredentials> findCredentialsById(@Param("id") String id);
+
+    @Modifying
+    @Transactional
+    @Query("update UserEntity u set u.password = :password where u.username = :username")
+    int updatePasswordFor(@Param("username") String username, @Param("password") String password);
 }
@@ -0,0 +1,31 @@
+package de.borisskert.springjwt.user.persistence;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * The user table's name as rendered by the entity mapping, e.g. qualified by the configured default schema. 'user' is
+ * a reserved word in PostgreSQL, so plain SQL statements must name the table exactly like Hibernate does.
+ */
+@Component
+class UserTable {
+    private final String name;
+
+    @Autowired
+    UserTable(EntityManagerFactory entityManagerFactory) {
+        AbstractEntityPersister persister = (AbstractEntityPersister) entityManagerFactory
+                .unwrap(SessionFactoryImplementor.class)
+                .getMetamodel()
+                .entityPersister(UserEntity.class);
+
+        this.name = persister.getTableName();
+    }
+
+    String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,77 @@
+package de.borisskert.springjwt.user.persistence;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Updates single values of a user by one targeted statement, without loading the user into the persistence context
+ * to detect its changes
+ */
+@Repository
+public class UserUpdateRepository {
+    private static final RoleMaskConverter ROLE_MASK_CONVERTER = new RoleMaskConverter();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String tableName;
+
+    @Autowired
+    UserUpdateRepository(JdbcTemplate jdbcTemplate, UserTable userTable) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tableName = userTable.getName();
+    }
+
+    /**
+     * Sets the specified values, values being null stay unchanged. The version of the user is increased in any case.
+     *
+     * @param expectedVersion the version the user must still have, any version if null
+     * @return false if there is no such user in the expected version
+     */
+    public boolean update(
+            String id,
+            Long expectedVersion,
+            String username,
+            String email,
+            LocalDate dateOfBirth,
+            Collection<String> roles
+    ) {
+        StringBuilder sql = new StringBuilder("update " + tableName + " set version = version + 1");
+        List<Object> arguments = new ArrayList<>();
+
+        if (username != null) {
+            sql.append(", username = ?");
+            arguments.add(username);
+        }
+
+        if (email != null) {
+            sql.append(", email = ?");
+            arguments.add(email);
+        }
+
+        if (dateOfBirth != null) {
+            sql.append(", date_of_birth = ?");
+            arguments.add(Date.valueOf(dateOfBirth));
+        }
+
+        if (roles != null) {
+            sql.append(", role_mask = ?");
+            arguments.add(ROLE_MASK_CONVERTER.convertToDatabaseColumn(roles));
+        }
+
+        sql.append(" where id = ?");
+        arguments.add(id);
+
+        if (expectedVersion != null) {
+            sql.append(" and version = ?");
+            arguments.add(expectedVersion);
+        }
+
+        return jdbcTemplate.update(sql.toString(), arguments.toArray()) > 0;
+    }
+}
@@ -0,0 +1,37 @@
+package de.borisskert.springjwt.user.persistence;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Read-only projection of the public user columns, which is not tracked by the persistence context
+ */
+public class UserView {
+    private final String username;
+    private final String email;
+    private final LocalDate dateOfBirth;
+    private final Collection<String> roles;
+
+    public UserView(String username, String email, LocalDate dateOfBirth, Collection<String> roles) {
+        this.username = username;
+        this.email = email;
+        this.dateOfBirth = dateOfBirth;
+        this.roles = roles;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public LocalDate getDateOfBirth() {
+        return dateOfBirth;
+    }
+
+    public Collection<String> getRoles() {
+        return roles;
+    }
+}
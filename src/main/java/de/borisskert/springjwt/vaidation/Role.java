@@ -0,0 +1,26 @@
+package de.borisskert.springjwt.vaidation;
+
+import javax.validation.Constraint;
+import javax.validation.Payload;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.PARAMETER;
+import static java.lang.annotation.ElementType.TYPE_USE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * One of the roles known by the {@link de.borisskert.springjwt.user.persistence.RoleRegistry}, since unknown roles
+ * cannot be stored
+ */
+@Target({FIELD, PARAMETER, TYPE_USE})
+@Constraint(validatedBy = RoleValidator.class)
+@Retention(RUNTIME)
+public @interface Role {
+    String message() default "must be a known role";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,16 @@
+package de.borisskert.springjwt.vaidation;
+
+import de.borisskert.springjwt.user.persistence.RoleRegistry;
+import org.springframework.stereotype.Component;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+@Component
+public class RoleValidator implements ConstraintValidator<Role, String> {
+
+    @Override
+    public boolean isValid(String value, ConstraintValidatorContext context) {
+        return value == null || RoleRegistry.ROLES.contains(value);
+    }
+}
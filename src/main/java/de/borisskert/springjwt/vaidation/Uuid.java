@@ -12,11 +12,13 @@ import static java.lang.annotation.RetentionPolicy.RUNTIME;
 
 /**
  * https://stackoverflow.com/a/37322115
+ * <p>
+ * Accepts the versions 1 to 7, including the time-ordered version 7 of new user ids
  */
 @Target({FIELD, PARAMETER})
 @Constraint(validatedBy = {})
 @Retention(RUNTIME)
-@Pattern(regexp = "^[0-9a-f]{8}-[0-9a-f]{4}-[1-5][0-9a-f]{3}-[89ab][0-9a-f]{3}-[0-9a-f]{12}$")
+@Pattern(regexp = "^[0-9a-f]{8}-[0-9a-f]{4}-[1-7][0-9a-f]{3}-[89ab][0-9a-f]{3}-[0-9a-f]{12}$")
 public @interface Uuid {
     String message() default "{invalid.uuid}";
 
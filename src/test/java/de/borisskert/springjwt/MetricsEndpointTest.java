@@ -0,0 +1,73 @@
+package de.borisskert.springjwt;
+
+import de.borisskert.springjwt.authentication.jwt.JwtTokenService;
+import de.borisskert.springjwt.user.FakeUserDetails;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.http.HttpStatus.FORBIDDEN;
+import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.HttpStatus.UNAUTHORIZED;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("IT")
+class MetricsEndpointTest {
+
+    private static final String PROMETHEUS_URL = "/actuator/prometheus";
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private JwtTokenService jwtTokenService;
+
+    @Test
+    public void shouldProvideAuthenticationMetricsForPrometheus() throws Exception {
+        ResponseEntity<String> response = requestWithRoles(Set.of("ADMIN"));
+
+        assertThat(response.getStatusCode(), is(equalTo(OK)));
+        assertThat(response.getBody(), containsString("jwt_sign_seconds"));
+        assertThat(response.getBody(), containsString("jwt_verify_seconds"));
+        assertThat(response.getBody(), containsString("password_match_seconds_bucket"));
+        assertThat(response.getBody(), containsString("login_attempts_total"));
+        assertThat(response.getBody(), containsString("login_queue_depth"));
+        assertThat(response.getBody(), containsString("cache=\"verifiedTokens\""));
+        assertThat(response.getBody(), containsString("cache=\"usersByUsername\""));
+    }
+
+    @Test
+    public void shouldNotProvideMetricsWithoutAuthentication() throws Exception {
+        ResponseEntity<String> response = restTemplate.getForEntity(PROMETHEUS_URL, String.class);
+
+        assertThat(response.getStatusCode(), is(equalTo(UNAUTHORIZED)));
+    }
+
+    @Test
+    public void shouldNotProvideMetricsWithUserRights() throws Exception {
+        ResponseEntity<String> response = requestWithRoles(Set.of("USER"));
+
+        assertThat(response.getStatusCode(), is(equalTo(FORBIDDEN)));
+    }
+
+    private ResponseEntity<String> requestWithRoles(Set<String> roles) {
+        String token = jwtTokenService.createSignedTokenFor(FakeUserDetails.of("metrics", roles));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Authorization", "Bearer " + token);
+
+        return restTemplate.exchange(PROMETHEUS_URL, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+}
@@ -0,0 +1,115 @@
+package de.borisskert.springjwt.authentication;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LoginExecutorTest {
+
+    private LoginExecutor executor;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        SecurityProperties properties = new SecurityProperties();
+        properties.getLogin().setThreads(1);
+        properties.getLogin().setQueueCapacity(1);
+        properties.getLogin().setTimeout(5_000L);
+
+        executor = new LoginExecutor(properties);
+    }
+
+    @AfterEach
+    public void cleanup() throws Exception {
+        executor.shutdown();
+    }
+
+    @Test
+    public void shouldProvideResultOfVerification() throws Exception {
+        String result = executor.execute(() -> "verified");
+
+        assertThat(result, is(equalTo("verified")));
+        assertThat(executor.getVerificationCount(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void shouldPassThroughFailedVerification() throws Exception {
+        assertThrows(BadCredentialsException.class, () -> executor.execute(() -> {
+            throw new BadCredentialsException("bad credentials");
+        }));
+    }
+
+    @Test
+    public void shouldCountAttemptsByOutcome() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        executor.bindTo(registry);
+
+        executor.execute(() -> "verified");
+        assertThrows(BadCredentialsException.class, () -> executor.execute(() -> {
+            throw new BadCredentialsException("bad credentials");
+        }));
+
+        assertThat(registry.get("login.attempts").tag("outcome", "success").functionCounter().count(), is(equalTo(1.0)));
+        assertThat(registry.get("login.attempts").tag("outcome", "failure").functionCounter().count(), is(equalTo(1.0)));
+        assertThat(registry.get("login.verification").functionTimer().count(), is(equalTo(2.0)));
+    }
+
+    @Nested
+    class WhenSaturated {
+        private CountDownLatch started;
+        private CountDownLatch release;
+
+        @BeforeEach
+        public void setup() throws Exception {
+            started = new CountDownLatch(1);
+            release = new CountDownLatch(1);
+
+            CompletableFuture.runAsync(() -> executor.execute(this::block));
+            started.await(5, TimeUnit.SECONDS);
+
+            CompletableFuture.runAsync(() -> executor.execute(() -> "queued"));
+            waitUntilQueued();
+        }
+
+        @AfterEach
+        public void cleanup() throws Exception {
+            release.countDown();
+        }
+
+        @Test
+        public void shouldRejectFurtherLogins() throws Exception {
+            assertThrows(LoginCapacityExceededException.class, () -> executor.execute(() -> "rejected"));
+        }
+
+        private String block() {
+            started.countDown();
+
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            return "blocked";
+        }
+
+        private void waitUntilQueued() throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5_000L;
+
+            while (executor.getQueueDepth() < 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+    }
+}
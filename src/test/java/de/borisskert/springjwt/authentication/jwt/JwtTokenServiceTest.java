@@ -1,18 +1,36 @@
 package de.borisskert.springjwt.authentication.jwt;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
 import de.borisskert.springjwt.authentication.SecurityProperties;
+import de.borisskert.springjwt.authentication.SecurityProperties.SigningAlgorithm;
+import de.borisskert.springjwt.authentication.revocation.RevokedTokens;
 import de.borisskert.springjwt.user.FakeUserDetails;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import javax.crypto.spec.SecretKeySpec;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.spec.ECGenParameterSpec;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -20,6 +38,10 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class JwtTokenServiceTest {
 
@@ -29,6 +51,8 @@ class JwtTokenServiceTest {
 
     private JwtTokenService service;
     private SecurityProperties properties;
+    private RevokedTokens revokedTokens;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     public void setup() throws Exception {
@@ -38,7 +62,9 @@ class JwtTokenServiceTest {
         properties.setSecret(MY_SECRET);
         properties.setExpiration(1000L);
 
-        service = new JwtTokenService(properties, Clock.systemUTC());
+        revokedTokens = new RevokedTokens(properties, Clock.systemUTC());
+        meterRegistry = new SimpleMeterRegistry();
+        service = new JwtTokenService(properties, Clock.systemUTC(), revokedTokens, meterRegistry);
     }
 
     @Test
@@ -59,6 +85,304 @@ class JwtTokenServiceTest {
         assertThat(authentication.getPrincipal(), is(equalTo("admin")));
     }
 
+    @Test
+    public void shouldAuthenticateReusedTokenFromCache() throws Exception {
+        UserDetails userDetails = FakeUserDetails.of("admin", Set.of("ADMIN", "USER"));
+        String jwt = service.createSignedTokenFor(userDetails);
+
+        Authentication first = service.tryToAuthenticate(jwt).orElseThrow();
+        Authentication second = service.tryToAuthenticate(jwt).orElseThrow();
+
+        assertThat(second, is(sameInstance(first)));
+        assertThat(service.getVerifiedTokenCacheStats().hitCount(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void shouldMeasureSigningAndVerification() throws Exception {
+        UserDetails userDetails = FakeUserDetails.of("admin", Set.of("ADMIN", "USER"));
+        String jwt = service.createSignedTokenFor(userDetails);
+
+        service.tryToAuthenticate(jwt);
+        service.tryToAuthenticate(jwt);
+
+        assertThat(meterRegistry.get("jwt.sign").timer().count(), is(equalTo(1L)));
+        assertThat(meterRegistry.get("jwt.verify").tag("outcome", "success").timer().count(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void shouldCountVerificationFailuresByOutcome() throws Exception {
+        SecurityProperties otherProperties = new SecurityProperties();
+        otherProperties.setIssuer(MY_ISSUER);
+        otherProperties.setAudience(MY_AUDIENCE);
+        otherProperties.setSecret("my other secret");
+        otherProperties.setExpiration(1000L);
+
+        UserDetails userDetails = FakeUserDetails.of("admin", Set.of("ADMIN", "USER"));
+        String jwtWithOtherSecret = createService(otherProperties, Clock.systemUTC()).createSignedTokenFor(userDetails);
+
+        service.tryToAuthenticate(jwtWithOtherSecret);
+        service.tryToAuthenticate("not.a.token");
+
+        assertThat(meterRegistry.get("jwt.verify").tag("outcome", "bad_signature").timer().count(), is(equalTo(1L)));
+        assertThat(meterRegistry.get("jwt.verify").tag("outcome", "malformed").timer().count(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void shouldNotAuthenticateRevokedToken() throws Exception {
+        UserDetails userDetails = FakeUserDetails.of("admin", Set.of("ADMIN", "USER"));
+        String jwt = service.createSignedTokenFor(userDetails);
+
+        JwtAuthentication authentication = (JwtAuthentication) service.tryToAuthenticate(jwt).orElseThrow();
+        revokedTokens.add(authentication.getTokenId(), authentication.getExpiresAt());
+
+        assertThat(service.tryToAuthenticate(jwt), is(equalTo(Optional.empty())));
+        assertThat(meterRegistry.get("jwt.revoked").counter().count(), is(equalTo(1.0)));
+    }
+
+    @Test
+    public void shouldIssueUniqueTokenIds() throws Exception {
+        UserDetails userDetails = FakeUserDetails.of("admin", Set.of("ADMIN", "USER"));
+
+        String firstId = JWT.decode(service.createSignedTokenFor(userDetails)).getId();
+        String secondId = JWT.decode(service.createSignedTokenFor(userDetails)).getId();
+
+        assertThat(firstId, is(notNullValue()));
+        assertThat(firstId, is(not(equalTo(secondId))));
+    }
+
+    @Nested
+    class WhenSecretChanged {
+        private String jwtWithOldSecret;
+
+        @BeforeEach
+        public void setup() throws Exception {
+            UserDetails userDetails = FakeUserDetails.of("admin", Set.of("ADMIN", "USER"));
+            jwtWithOldSecret = service.createSignedTokenFor(userDetails);
+
+            properties.setSecret("my changed secret");
+        }
+
+        @Test
+        public void shouldNotAuthenticateTokenSignedWithOldSecret() throws Exception {
+            Optional<Authentication> maybe = service.tryToAuthenticate(jwtWithOldSecret);
+
+            assertThat(maybe.isPresent(), is(equalTo(false)));
+        }
+
+        @Test
+        public void shouldAuthenticateTokenSignedWithChangedSecret() throws Exception {
+            UserDetails userDetails = FakeUserDetails.of("admin", Set.of("ADMIN", "USER"));
+            String jwt = service.createSignedTokenFor(userDetails);
+
+            Optional<Authentication> maybe = service.tryToAuthenticate(jwt);
+
+            assertThat(maybe.isPresent(), is(equalTo(true)));
+        }
+    }
+
+    @Nested
+    class WithAsymmetricAlgorithm {
+
+        @TempDir
+        Path keyDirectory;
+
+        @ParameterizedTest
+        @EnumSource(value = SigningAlgorithm.class, names = {"RS256", "ES256"})
+        public void shouldAuthenticateTokenSignedByOtherNode(SigningAlgorithm algorithm) throws Exception {
+            JwtTokenService signingService = createService(asymmetricProperties(algorithm, true), Clock.systemUTC());
+            JwtTokenService verifyingService = createService(asymmetricProperties(algorithm, false), Clock.systemUTC());
+
+            UserDetails userDetails = FakeUserDetails.of("admin", Set.of("ADMIN", "USER"));
+            String jwt = signingService.createSignedTokenFor(userDetails);
+
+            Optional<Authentication> maybe = verifyingService.tryToAuthenticate(jwt);
+
+            assertThat(maybe.isPresent(), is(equalTo(true)));
+            assertThat(maybe.get().getPrincipal(), is(equalTo("admin")));
+        }
+
+        @ParameterizedTest
+        @EnumSource(value = SigningAlgorithm.class, names = {"RS256", "ES256"})
+        public void shouldNotSignWithoutPrivateKey(SigningAlgorithm algorithm) throws Exception {
+            JwtTokenService verifyingService = createService(asymmetricProperties(algorithm, false), Clock.systemUTC());
+            UserDetails userDetails = FakeUserDetails.of("admin", Set.of("ADMIN", "USER"));
+
+            assertThat(verifyingService.canSign(), is(equalTo(false)));
+            assertThrows(IllegalStateException.class, () -> verifyingService.createSignedTokenFor(userDetails));
+        }
+
+        @ParameterizedTest
+        @EnumSource(value = SigningAlgorithm.class, names = {"RS256", "ES256"})
+        public void shouldNotAuthenticateTokenSignedWithSecret(SigningAlgorithm algorithm) throws Exception {
+            JwtTokenService verifyingService = createService(asymmetricProperties(algorithm, false), Clock.systemUTC());
+
+            UserDetails userDetails = FakeUserDetails.of("admin", Set.of("ADMIN", "USER"));
+            String jwt = service.createSignedTokenFor(userDetails);
+
+            Optional<Authentication> maybe = verifyingService.tryToAuthenticate(jwt);
+
+            assertThat(maybe.isPresent(), is(equalTo(false)));
+        }
+
+        private SecurityProperties asymmetricProperties(SigningAlgorithm algorithm, boolean withPrivateKey) throws Exception {
+            Path publicKey = keyDirectory.resolve(algorithm + "-public.pem");
+            Path privateKey = keyDirectory.resolve(algorithm + "-private.pem");
+
+            if (Files.notExists(publicKey)) {
+                writeKeyPair(algorithm, publicKey, privateKey);
+            }
+
+            SecurityProperties properties = new SecurityProperties();
+            properties.setIssuer(MY_ISSUER);
+            properties.setAudience(MY_AUDIENCE);
+            properties.setAlgorithm(algorithm);
+            properties.setPublicKeyLocation(publicKey.toString());
+            properties.setExpiration(1000L);
+
+            if (withPrivateKey) {
+                properties.setPrivateKeyLocation(privateKey.toString());
+            }
+
+            return properties;
+        }
+
+        private void writeKeyPair(SigningAlgorithm algorithm, Path publicKey, Path privateKey) throws Exception {
+            KeyPairGenerator generator;
+
+            if (algorithm == SigningAlgorithm.RS256) {
+                generator = KeyPairGenerator.getInstance("RSA");
+                generator.initialize(2048);
+            } else {
+                generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+            }
+
+            KeyPair keyPair = generator.generateKeyPair();
+
+            Files.writeString(publicKey, toPem("PUBLIC KEY", keyPair.getPublic().getEncoded()));
+            Files.writeString(privateKey, toPem("PRIVATE KEY", keyPair.getPrivate().getEncoded()));
+        }
+
+        private String toPem(String type, byte[] encoded) {
+            return "-----BEGIN " + type + "-----\n"
+                    + Base64.getMimeEncoder().encodeToString(encoded)
+                    + "\n-----END " + type + "-----\n";
+        }
+    }
+
+    @Nested
+    class WithKeystore {
+        private static final String KEYSTORE_PASSWORD = "my keystore password";
+
+        @TempDir
+        Path keystoreDirectory;
+
+        private Path keystore;
+        private SecurityProperties keystoreProperties;
+        private JwtTokenService keystoreService;
+
+        private final byte[] firstKey = "my first secret key with 512 bits, i.e. sixty-four bytes long!!!".getBytes();
+        private final byte[] secondKey = "my second secret key with 512 bits, i.e. sixty-four bytes long!!".getBytes();
+
+        @BeforeEach
+        public void setup() throws Exception {
+            keystore = keystoreDirectory.resolve("keys.p12");
+            writeKeystore(Map.of("first", firstKey));
+
+            keystoreProperties = new SecurityProperties();
+            keystoreProperties.setIssuer(MY_ISSUER);
+            keystoreProperties.setAudience(MY_AUDIENCE);
+            keystoreProperties.setExpiration(1000L);
+            keystoreProperties.getKeystore().setLocation(keystore.toString());
+            keystoreProperties.getKeystore().setPassword(KEYSTORE_PASSWORD);
+            keystoreProperties.getKeystore().setSigningKeyId("first");
+
+            keystoreService = createService(keystoreProperties, Clock.systemUTC());
+        }
+
+        @Test
+        public void shouldSignWithKeyId() throws Exception {
+            UserDetails userDetails = FakeUserDetails.of("admin", Set.of("ADMIN", "USER"));
+            String jwt = keystoreService.createSignedTokenFor(userDetails);
+
+            assertThat(JWT.decode(jwt).getKeyId(), is(equalTo("first")));
+            assertThat(keystoreService.tryToAuthenticate(jwt).isPresent(), is(equalTo(true)));
+        }
+
+        @Test
+        public void shouldAuthenticateTokenOfFormerSigningKeyAfterRotation() throws Exception {
+            UserDetails userDetails = FakeUserDetails.of("admin", Set.of("ADMIN", "USER"));
+            String jwtOfFirstKey = keystoreService.createSignedTokenFor(userDetails);
+
+            writeKeystore(Map.of("first", firstKey, "second", secondKey));
+            keystoreProperties.getKeystore().setSigningKeyId("second");
+
+            String jwtOfSecondKey = keystoreService.createSignedTokenFor(userDetails);
+
+            assertThat(JWT.decode(jwtOfSecondKey).getKeyId(), is(equalTo("second")));
+            assertThat(keystoreService.tryToAuthenticate(jwtOfFirstKey).isPresent(), is(equalTo(true)));
+            assertThat(keystoreService.tryToAuthenticate(jwtOfSecondKey).isPresent(), is(equalTo(true)));
+        }
+
+        @Test
+        public void shouldNotAuthenticateTokenOfKeyRemovedFromReloadedKeystore() throws Exception {
+            UserDetails userDetails = FakeUserDetails.of("admin", Set.of("ADMIN", "USER"));
+            String jwtOfFirstKey = keystoreService.createSignedTokenFor(userDetails);
+
+            writeKeystore(Map.of("second", secondKey));
+            keystoreProperties.getKeystore().setSigningKeyId("second");
+            keystoreService.reloadModifiedKeystore();
+
+            assertThat(keystoreService.tryToAuthenticate(jwtOfFirstKey).isPresent(), is(equalTo(false)));
+        }
+
+        @Test
+        public void shouldKeepFormerKeysIfReloadedKeystoreLacksSigningKey() throws Exception {
+            UserDetails userDetails = FakeUserDetails.of("admin", Set.of("ADMIN", "USER"));
+            String jwtOfFirstKey = keystoreService.createSignedTokenFor(userDetails);
+
+            writeKeystore(Map.of("second", secondKey));
+            keystoreService.reloadModifiedKeystore();
+
+            assertThat(keystoreService.tryToAuthenticate(jwtOfFirstKey).isPresent(), is(equalTo(true)));
+        }
+
+        @Test
+        public void shouldNotAuthenticateTokenWithUnknownKeyId() throws Exception {
+            String jwt = JWT.create()
+                    .withKeyId("unknown")
+                    .withSubject("admin")
+                    .withIssuer(MY_ISSUER)
+                    .withAudience(MY_AUDIENCE)
+                    .sign(Algorithm.HMAC512(firstKey));
+
+            assertThat(keystoreService.tryToAuthenticate(jwt).isPresent(), is(equalTo(false)));
+        }
+
+        private void writeKeystore(Map<String, byte[]> secretKeys) throws Exception {
+            KeyStore keyStore = KeyStore.getInstance("PKCS12");
+            keyStore.load(null, null);
+
+            KeyStore.PasswordProtection protection = new KeyStore.PasswordProtection(KEYSTORE_PASSWORD.toCharArray());
+
+            for (Map.Entry<String, byte[]> secretKey : secretKeys.entrySet()) {
+                KeyStore.SecretKeyEntry entry = new KeyStore.SecretKeyEntry(new SecretKeySpec(secretKey.getValue(), "HmacSHA512"));
+                keyStore.setEntry(secretKey.getKey(), entry, protection);
+            }
+
+            FileTime formerModification = Files.exists(keystore) ? Files.getLastModifiedTime(keystore) : null;
+
+            try (OutputStream stream = Files.newOutputStream(keystore)) {
+                keyStore.store(stream, KEYSTORE_PASSWORD.toCharArray());
+            }
+
+            // file systems may track modifications by seconds only
+            if (formerModification != null) {
+                Files.setLastModifiedTime(keystore, FileTime.fromMillis(formerModification.toMillis() + 1000));
+            }
+        }
+    }
+
     @Nested
     class NotAuthenticate {
 
@@ -74,7 +398,7 @@ class JwtTokenServiceTest {
                 properties.setSecret("my other secret");
                 properties.setExpiration(1000L);
 
-                anotherService = new JwtTokenService(properties, Clock.systemUTC());
+                anotherService = createService(properties, Clock.systemUTC());
             }
 
             @Test
@@ -98,7 +422,7 @@ class JwtTokenServiceTest {
                 properties.setSecret(MY_SECRET);
                 properties.setExpiration(1000L);
 
-                anotherService = new JwtTokenService(properties, Clock.systemUTC());
+                anotherService = createService(properties, Clock.systemUTC());
             }
 
             @Test
@@ -122,7 +446,7 @@ class JwtTokenServiceTest {
                 properties.setSecret(MY_SECRET);
                 properties.setExpiration(1000L);
 
-                anotherService = new JwtTokenService(properties, Clock.systemUTC());
+                anotherService = createService(properties, Clock.systemUTC());
             }
 
             @Test
@@ -146,7 +470,7 @@ class JwtTokenServiceTest {
             fixedTime = Instant.parse("2020-04-09T20:54:43.000Z"); // equals 1586465683L
             Clock fixedClock = Clock.fixed(fixedTime, ZoneOffset.UTC.normalized());
 
-            service = new JwtTokenService(properties, fixedClock);
+            service = createService(properties, fixedClock);
         }
 
         @Test
@@ -179,7 +503,7 @@ class JwtTokenServiceTest {
             @BeforeEach
             public void setup() throws Exception {
                 Instant notYetExpired = Instant.parse("2020-04-09T20:54:44.000Z");
-                laterService = new JwtTokenService(properties, Clock.fixed(notYetExpired, ZoneOffset.UTC.normalized()));
+                laterService = createService(properties, Clock.fixed(notYetExpired, ZoneOffset.UTC.normalized()));
             }
 
             @Test
@@ -201,7 +525,7 @@ class JwtTokenServiceTest {
             public void setup() throws Exception {
                 Instant expired = Instant.parse("2020-04-09T20:54:45.000Z");
 
-                laterService = new JwtTokenService(properties, Clock.fixed(expired, ZoneOffset.UTC.normalized()));
+                laterService = createService(properties, Clock.fixed(expired, ZoneOffset.UTC.normalized()));
             }
 
             @Test
@@ -215,4 +539,8 @@ class JwtTokenServiceTest {
             }
         }
     }
+
+    private static JwtTokenService createService(SecurityProperties properties, Clock clock) {
+        return new JwtTokenService(properties, clock, new RevokedTokens(properties, clock), new SimpleMeterRegistry());
+    }
 }
@@ -0,0 +1,42 @@
+package de.borisskert.springjwt.authentication.jwt;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+class RoleAuthoritiesTest {
+
+    @Test
+    public void shouldMapKnownRolesToPrefixedAuthorities() throws Exception {
+        assertThat(
+                RoleAuthorities.of(List.of("ADMIN", "USER")),
+                is(equalTo(Set.of(new SimpleGrantedAuthority("ROLE_ADMIN"), new SimpleGrantedAuthority("ROLE_USER"))))
+        );
+    }
+
+    @Test
+    public void shouldShareAuthoritiesRegardlessOfOrder() throws Exception {
+        assertThat(RoleAuthorities.of(List.of("USER", "ADMIN")), is(sameInstance(RoleAuthorities.of(List.of("ADMIN", "USER")))));
+    }
+
+    @Test
+    public void shouldMapNoRolesToNoAuthorities() throws Exception {
+        assertThat(RoleAuthorities.of(List.of()), is(empty()));
+    }
+
+    @Test
+    public void shouldMapUnknownRoles() throws Exception {
+        assertThat(
+                RoleAuthorities.of(List.of("USER", "AUDITOR")),
+                is(equalTo(Set.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_AUDITOR"))))
+        );
+    }
+}
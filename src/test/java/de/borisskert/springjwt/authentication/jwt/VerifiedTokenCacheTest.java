@@ -0,0 +1,119 @@
+package de.borisskert.springjwt.authentication.jwt;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+class VerifiedTokenCacheTest {
+
+    private static final String MY_TOKEN = "my token";
+    private static final Date EXPIRES_AT = Date.from(Instant.parse("2020-04-09T20:54:44.000Z"));
+
+    private MutableClock clock;
+    private VerifiedTokenCache cache;
+    private Authentication authentication;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        clock = new MutableClock(Instant.parse("2020-04-09T20:54:43.000Z"));
+        cache = new VerifiedTokenCache(100L, clock);
+        authentication = JwtAuthentication.of("my principal", Set.of("USER"));
+    }
+
+    @Test
+    public void shouldMissUnknownToken() throws Exception {
+        Optional<Authentication> maybe = cache.get(MY_TOKEN);
+
+        assertThat(maybe.isPresent(), is(equalTo(false)));
+        assertThat(cache.stats().missCount(), is(equalTo(1L)));
+    }
+
+    @Test
+    public void shouldNotCacheIfDisabled() throws Exception {
+        VerifiedTokenCache disabledCache = new VerifiedTokenCache(0, clock);
+        disabledCache.put(MY_TOKEN, authentication, EXPIRES_AT);
+
+        assertThat(disabledCache.get(MY_TOKEN).isPresent(), is(equalTo(false)));
+    }
+
+    @Nested
+    class WhenPut {
+        @BeforeEach
+        public void setup() throws Exception {
+            cache.put(MY_TOKEN, authentication, EXPIRES_AT);
+        }
+
+        @Test
+        public void shouldProvideCachedAuthentication() throws Exception {
+            Optional<Authentication> maybe = cache.get(MY_TOKEN);
+
+            assertThat(maybe.isPresent(), is(equalTo(true)));
+            assertThat(maybe.get(), is(sameInstance(authentication)));
+            assertThat(cache.stats().hitCount(), is(equalTo(1L)));
+        }
+
+        @Test
+        public void shouldProvideAuthenticationWithinLastSecond() throws Exception {
+            clock.instant = Instant.parse("2020-04-09T20:54:44.999Z");
+
+            Optional<Authentication> maybe = cache.get(MY_TOKEN);
+
+            assertThat(maybe.isPresent(), is(equalTo(true)));
+        }
+
+        @Test
+        public void shouldNotProvideExpiredAuthentication() throws Exception {
+            clock.instant = Instant.parse("2020-04-09T20:54:45.000Z");
+
+            Optional<Authentication> maybe = cache.get(MY_TOKEN);
+
+            assertThat(maybe.isPresent(), is(equalTo(false)));
+        }
+
+        @Test
+        public void shouldNotProvideInvalidatedAuthentication() throws Exception {
+            cache.invalidateAll();
+
+            Optional<Authentication> maybe = cache.get(MY_TOKEN);
+
+            assertThat(maybe.isPresent(), is(equalTo(false)));
+        }
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
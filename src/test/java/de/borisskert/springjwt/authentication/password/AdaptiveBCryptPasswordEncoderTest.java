@@ -0,0 +1,86 @@
+package de.borisskert.springjwt.authentication.password;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+class AdaptiveBCryptPasswordEncoderTest {
+
+    private static final String MY_PASSWORD = "my_p@ssw0rd";
+
+    @Nested
+    class WithPinnedStrength {
+        private AdaptiveBCryptPasswordEncoder encoder;
+
+        @BeforeEach
+        public void setup() throws Exception {
+            encoder = new AdaptiveBCryptPasswordEncoder(5, true);
+        }
+
+        @Test
+        public void shouldNotUpgradePasswordWithSameCost() throws Exception {
+            String encoded = encoder.encode(MY_PASSWORD);
+
+            assertThat(encoder.upgradeEncoding(encoded), is(equalTo(false)));
+        }
+
+        @Test
+        public void shouldUpgradePasswordWithLowerCost() throws Exception {
+            String encoded = new BCryptPasswordEncoder(4).encode(MY_PASSWORD);
+
+            assertThat(encoder.upgradeEncoding(encoded), is(equalTo(true)));
+        }
+
+        @Test
+        public void shouldDowngradePasswordWithHigherCost() throws Exception {
+            String encoded = new BCryptPasswordEncoder(6).encode(MY_PASSWORD);
+
+            assertThat(encoder.matches(MY_PASSWORD, encoded), is(equalTo(true)));
+            assertThat(encoder.upgradeEncoding(encoded), is(equalTo(true)));
+        }
+
+        @Test
+        public void shouldNotUpgradeMissingPassword() throws Exception {
+            assertThat(encoder.upgradeEncoding(null), is(equalTo(false)));
+        }
+    }
+
+    @Nested
+    class WithCalibratedStrength {
+        private AdaptiveBCryptPasswordEncoder encoder;
+
+        @BeforeEach
+        public void setup() throws Exception {
+            encoder = new AdaptiveBCryptPasswordEncoder(5, false);
+        }
+
+        @Test
+        public void shouldUpgradePasswordWithLowerCost() throws Exception {
+            String encoded = new BCryptPasswordEncoder(4).encode(MY_PASSWORD);
+
+            assertThat(encoder.upgradeEncoding(encoded), is(equalTo(true)));
+        }
+
+        @Test
+        public void shouldNotDowngradePasswordWithHigherCost() throws Exception {
+            String encoded = new BCryptPasswordEncoder(6).encode(MY_PASSWORD);
+
+            assertThat(encoder.matches(MY_PASSWORD, encoded), is(equalTo(true)));
+            assertThat(encoder.upgradeEncoding(encoded), is(equalTo(false)));
+        }
+    }
+
+    @Test
+    public void shouldCalibrateAtLeastMinimumStrength() throws Exception {
+        int strength = BCryptCalibration.calibrate(Duration.ofNanos(1), 4);
+
+        assertThat(strength, is(equalTo(4)));
+    }
+}
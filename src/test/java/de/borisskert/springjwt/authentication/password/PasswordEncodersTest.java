@@ -0,0 +1,63 @@
+package de.borisskert.springjwt.authentication.password;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+
+class PasswordEncodersTest {
+
+    private static final String MY_PASSWORD = "my_p@ssw0rd";
+
+    @Nested
+    class WithBCrypt {
+        private final PasswordEncoder encoder = PasswordEncoders.create(PasswordEncoding.BCRYPT, 4);
+
+        @Test
+        public void shouldEncodeWithPrefix() throws Exception {
+            String encoded = encoder.encode(MY_PASSWORD);
+
+            assertThat(encoded, startsWith("{bcrypt}$2a$04$"));
+            assertThat(encoder.matches(MY_PASSWORD, encoded), is(equalTo(true)));
+            assertThat(encoder.upgradeEncoding(encoded), is(equalTo(false)));
+        }
+
+        @Test
+        public void shouldMatchAndUpgradeUnprefixedHash() throws Exception {
+            String legacy = new BCryptPasswordEncoder(4).encode(MY_PASSWORD);
+
+            assertThat(encoder.matches(MY_PASSWORD, legacy), is(equalTo(true)));
+            assertThat(encoder.upgradeEncoding(legacy), is(equalTo(true)));
+        }
+    }
+
+    @Nested
+    class WithArgon2 {
+        private final PasswordEncoder encoder = PasswordEncoders.create(PasswordEncoding.ARGON2, 4);
+
+        @Test
+        public void shouldEncodeWithPrefix() throws Exception {
+            String encoded = encoder.encode(MY_PASSWORD);
+
+            assertThat(encoded, startsWith("{argon2}$argon2id$"));
+            assertThat(encoder.matches(MY_PASSWORD, encoded), is(equalTo(true)));
+            assertThat(encoder.upgradeEncoding(encoded), is(equalTo(false)));
+        }
+
+        @Test
+        public void shouldMatchAndUpgradeOtherSchemes() throws Exception {
+            String bCrypt = PasswordEncoders.create(PasswordEncoding.BCRYPT, 4).encode(MY_PASSWORD);
+            String pbkdf2 = PasswordEncoders.create(PasswordEncoding.PBKDF2, 4).encode(MY_PASSWORD);
+
+            assertThat(encoder.matches(MY_PASSWORD, bCrypt), is(equalTo(true)));
+            assertThat(encoder.upgradeEncoding(bCrypt), is(equalTo(true)));
+            assertThat(encoder.matches(MY_PASSWORD, pbkdf2), is(equalTo(true)));
+            assertThat(encoder.upgradeEncoding(pbkdf2), is(equalTo(true)));
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package de.borisskert.springjwt.authentication.refresh;
+
+import de.borisskert.springjwt.ApplicationProperties;
+import de.borisskert.springjwt.authentication.AdminAccountCreation;
+import de.borisskert.springjwt.authentication.SecurityProperties;
+import de.borisskert.springjwt.authentication.jwt.JwtAuthentication;
+import de.borisskert.springjwt.authentication.jwt.JwtTokenService;
+import de.borisskert.springjwt.authentication.refresh.persistence.RefreshTokenRepository;
+import de.borisskert.springjwt.authentication.userdetails.RepositoryUserDetails;
+import de.borisskert.springjwt.authentication.userdetails.RepositoryUserDetailsService;
+import de.borisskert.springjwt.user.FakeUserDetails;
+import de.borisskert.springjwt.user.UserPatch;
+import de.borisskert.springjwt.user.UserService;
+import de.borisskert.springjwt.user.UserToSignUp;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static de.borisskert.springjwt.user.MockUsers.VALID_PASSWORD;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@DirtiesContext
+@ActiveProfiles("IT")
+class RefreshTokenServiceTest {
+
+    @Autowired
+    private AdminAccountCreation adminAccountCreation;
+
+    @Autowired
+    private RefreshTokenService service;
+
+    @Autowired
+    private JwtTokenService jwtTokenService;
+
+    @Autowired
+    private RefreshTokenRepository repository;
+
+    @Autowired
+    private RepositoryUserDetailsService userDetailsService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private SecurityProperties properties;
+
+    @Autowired
+    private Clock clock;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        ApplicationProperties.Credentials credentials = new ApplicationProperties.Credentials();
+        credentials.setUsername("admin");
+        credentials.setPassword("admin123");
+
+        adminAccountCreation.initializeAdmins(Set.of(credentials));
+    }
+
+    @Test
+    public void shouldRefreshTokens() throws Exception {
+        String refreshToken = issueFor("admin");
+
+        TokenPair tokens = service.refresh(refreshToken).orElseThrow();
+
+        assertThat(tokens.getRefreshToken(), is(not(equalTo(refreshToken))));
+        assertThat(jwtTokenService.tryToAuthenticate(tokens.getAccessToken()).orElseThrow().getPrincipal(), is(equalTo("admin")));
+    }
+
+    @Test
+    public void shouldNotRefreshUnknownToken() throws Exception {
+        assertThat(service.refresh("my unknown refresh token"), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    public void shouldRevokeTokenFamilyWhenReused() throws Exception {
+        String refreshToken = issueFor("admin");
+        TokenPair rotated = service.refresh(refreshToken).orElseThrow();
+
+        assertThat(service.refresh(refreshToken), is(equalTo(Optional.empty())));
+        assertThat(service.refresh(rotated.getRefreshToken()), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    public void shouldNotRefreshTokenOfUnknownUser() throws Exception {
+        String unknownId = UUID.randomUUID().toString();
+        String refreshToken = service.issueFor(unknownId, FakeUserDetails.of("unknown", Set.of("ADMIN")))
+                .getRefreshToken();
+
+        assertThat(service.refresh(refreshToken), is(equalTo(Optional.empty())));
+    }
+
+    @Test
+    public void shouldRefreshTokensOfRenamedUserOnly() throws Exception {
+        String id = userService.signUp(signUp("renamed", "renamed@fakemail.com"));
+        String refreshToken = issueFor("renamed");
+
+        userService.patch(id, UserPatch.builder().username("was_renamed").build(), null);
+        userService.signUp(signUp("renamed", "took_over@fakemail.com"));
+
+        TokenPair tokens = service.refresh(refreshToken).orElseThrow();
+
+        assertThat(jwtTokenService.tryToAuthenticate(tokens.getAccessToken()).orElseThrow().getPrincipal(), is(equalTo("was_renamed")));
+    }
+
+    @Test
+    public void shouldNotUseUpRefreshTokenOnVerifyOnlyNode() throws Exception {
+        JwtTokenService verifyOnlyTokenService = mock(JwtTokenService.class);
+        when(verifyOnlyTokenService.canSign()).thenReturn(false);
+
+        RefreshTokenService verifyOnlyService = new RefreshTokenService(
+                repository,
+                userDetailsService,
+                verifyOnlyTokenService,
+                properties,
+                clock
+        );
+
+        String refreshToken = issueFor("admin");
+
+        assertThrows(RefreshUnavailableException.class, () -> verifyOnlyService.refresh(refreshToken));
+        assertThat(service.refresh(refreshToken).isPresent(), is(equalTo(true)));
+    }
+
+    @Test
+    public void shouldBindAccessTokensToTokenFamily() throws Exception {
+        TokenPair tokens = issueTokensFor("admin");
+        String sessionId = sessionIdOf(tokens.getAccessToken());
+
+        TokenPair refreshed = service.refresh(tokens.getRefreshToken()).orElseThrow();
+
+        assertThat(sessionId, is(notNullValue()));
+        assertThat(sessionIdOf(refreshed.getAccessToken()), is(equalTo(sessionId)));
+    }
+
+    @Test
+    public void shouldNotRefreshTokenOfRevokedFamily() throws Exception {
+        TokenPair tokens = issueTokensFor("admin");
+
+        service.revokeFamily(sessionIdOf(tokens.getAccessToken()));
+
+        assertThat(service.refresh(tokens.getRefreshToken()), is(equalTo(Optional.empty())));
+    }
+
+    private String issueFor(String username) {
+        return issueTokensFor(username).getRefreshToken();
+    }
+
+    private TokenPair issueTokensFor(String username) {
+        RepositoryUserDetails userDetails = (RepositoryUserDetails) userDetailsService.loadUserByUsername(username);
+
+        return service.issueFor(userDetails.getId(), userDetails);
+    }
+
+    private static UserToSignUp signUp(String username, String email) {
+        return UserToSignUp.from(username, email, LocalDate.of(1990, 1, 1), VALID_PASSWORD);
+    }
+
+    private String sessionIdOf(String accessToken) {
+        JwtAuthentication authentication = (JwtAuthentication) jwtTokenService.tryToAuthenticate(accessToken)
+                .orElseThrow();
+
+        return authentication.getSessionId();
+    }
+}
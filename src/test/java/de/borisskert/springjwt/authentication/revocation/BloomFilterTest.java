@@ -0,0 +1,44 @@
+package de.borisskert.springjwt.authentication.revocation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+class BloomFilterTest {
+
+    @Test
+    public void shouldContainAddedValues() throws Exception {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+
+        for (int index = 0; index < 1000; index++) {
+            String value = UUID.randomUUID().toString();
+            filter.add(value);
+
+            assertThat(filter.mightContain(value), is(equalTo(true)));
+        }
+    }
+
+    @Test
+    public void shouldRarelyReportFalsePositives() throws Exception {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+
+        for (int index = 0; index < 1000; index++) {
+            filter.add(UUID.randomUUID().toString());
+        }
+
+        int falsePositives = 0;
+
+        for (int index = 0; index < 10_000; index++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives, is(lessThan(500)));
+    }
+}
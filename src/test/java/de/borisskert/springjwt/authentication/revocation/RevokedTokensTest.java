@@ -0,0 +1,62 @@
+package de.borisskert.springjwt.authentication.revocation;
+
+import de.borisskert.springjwt.authentication.SecurityProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+class RevokedTokensTest {
+    private static final Instant NOW = Instant.parse("2020-04-09T20:54:45.000Z");
+
+    private RevokedTokens revokedTokens;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        SecurityProperties properties = new SecurityProperties();
+        properties.getRevocation().setExpectedTokens(100);
+
+        revokedTokens = new RevokedTokens(properties, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    public void shouldNotConsiderUnknownTokenRevoked() throws Exception {
+        revokedTokens.add("my revoked token", NOW.plusSeconds(60));
+
+        assertThat(revokedTokens.isRevoked("my other token"), is(equalTo(false)));
+    }
+
+    @Test
+    public void shouldNotConsiderTokenWithoutIdRevoked() throws Exception {
+        assertThat(revokedTokens.isRevoked(null), is(equalTo(false)));
+    }
+
+    @Test
+    public void shouldConsiderAllAddedTokensRevoked() throws Exception {
+        for (int index = 0; index < 1000; index++) {
+            String tokenId = UUID.randomUUID().toString();
+            revokedTokens.add(tokenId, NOW.plusSeconds(60));
+
+            assertThat(revokedTokens.isRevoked(tokenId), is(equalTo(true)));
+        }
+    }
+
+    @Test
+    public void shouldPurgeExpiredTokens() throws Exception {
+        revokedTokens.add("my expired token", NOW);
+        revokedTokens.add("my revoked token", NOW.plusSeconds(60));
+
+        revokedTokens.purgeExpired();
+
+        assertThat(revokedTokens.size(), is(equalTo(1)));
+        assertThat(revokedTokens.isRevoked("my expired token"), is(equalTo(false)));
+        assertThat(revokedTokens.isRevoked("my revoked token"), is(equalTo(true)));
+    }
+}
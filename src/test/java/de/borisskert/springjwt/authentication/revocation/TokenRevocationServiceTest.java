@@ -0,0 +1,77 @@
+package de.borisskert.springjwt.authentication.revocation;
+
+import de.borisskert.springjwt.authentication.SecurityProperties;
+import de.borisskert.springjwt.authentication.revocation.persistence.RevokedTokenRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Clock;
+import java.time.Instant;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest
+@DirtiesContext
+@ActiveProfiles("IT")
+class TokenRevocationServiceTest {
+    private static final String MY_TOKEN_ID = "0f6e1c2d-3a4b-4c5d-8e6f-7a8b9c0d1e2f";
+    private static final String MY_OTHER_TOKEN_ID = "2b8a3e4f-5c6d-4e7f-8a9b-0c1d2e3f4a5b";
+    private static final String MY_EXPIRED_TOKEN_ID = "1a7f2d3e-4b5c-4d6e-9f7a-8b9c0d1e2f3a";
+
+    @Autowired
+    private TokenRevocationService service;
+
+    @Autowired
+    private RevokedTokenRepository repository;
+
+    @Autowired
+    private Clock clock;
+
+    @Test
+    public void shouldRevokeAndPersistToken() throws Exception {
+        service.revoke(MY_TOKEN_ID, clock.instant().plusSeconds(60));
+
+        assertThat(service.isRevoked(MY_TOKEN_ID), is(equalTo(true)));
+        assertThat(repository.existsById(MY_TOKEN_ID), is(equalTo(true)));
+    }
+
+    @Test
+    public void shouldReloadPersistedTokens() throws Exception {
+        service.revoke(MY_TOKEN_ID, clock.instant().plusSeconds(60));
+
+        RevokedTokens reloaded = new RevokedTokens(new SecurityProperties(), clock);
+        new TokenRevocationService(repository, reloaded, clock).loadRevokedTokens();
+
+        assertThat(reloaded.isRevoked(MY_TOKEN_ID), is(equalTo(true)));
+    }
+
+    @Test
+    public void shouldSyncTokensRevokedByOtherNode() throws Exception {
+        RevokedTokens otherNodeTokens = new RevokedTokens(new SecurityProperties(), clock);
+        TokenRevocationService otherNode = new TokenRevocationService(repository, otherNodeTokens, clock);
+        otherNode.loadRevokedTokens();
+
+        service.revoke(MY_OTHER_TOKEN_ID, clock.instant().plusSeconds(60));
+        assertThat(otherNode.isRevoked(MY_OTHER_TOKEN_ID), is(equalTo(false)));
+
+        otherNode.syncRevokedTokens();
+
+        assertThat(otherNode.isRevoked(MY_OTHER_TOKEN_ID), is(equalTo(true)));
+    }
+
+    @Test
+    public void shouldPurgeExpiredTokens() throws Exception {
+        Instant past = clock.instant().minusSeconds(60);
+        service.revoke(MY_EXPIRED_TOKEN_ID, past);
+
+        service.purgeExpired();
+
+        assertThat(service.isRevoked(MY_EXPIRED_TOKEN_ID), is(equalTo(false)));
+        assertThat(repository.existsById(MY_EXPIRED_TOKEN_ID), is(equalTo(false)));
+    }
+}
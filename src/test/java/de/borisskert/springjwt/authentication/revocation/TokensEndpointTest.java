@@ -0,0 +1,133 @@
+package de.borisskert.springjwt.authentication.revocation;
+
+import de.borisskert.springjwt.authentication.jwt.JwtAuthentication;
+import de.borisskert.springjwt.authentication.jwt.JwtTokenService;
+import de.borisskert.springjwt.authentication.refresh.RefreshTokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.HttpStatus.FORBIDDEN;
+import static org.springframework.http.HttpStatus.NO_CONTENT;
+import static org.springframework.http.HttpStatus.UNAUTHORIZED;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("IT")
+class TokensEndpointTest {
+    private static final String API_TOKENS_URL = "/api/tokens";
+    private static final String ADMIN_TOKEN_VALUE = "MY_ADMIN.TOKEN.VALUE";
+    private static final String USER_TOKEN_VALUE = "MY_USER.TOKEN.VALUE";
+    private static final String USER_TOKEN_ID = "2b8a3e4f-5c6d-4e7f-8a9b-0c1d2e3f4a5b";
+    private static final String USER_SESSION_ID = "4d0c5a6b-7e8f-4a9b-8c1d-2e3f4a5b6c7d";
+    private static final Instant USER_TOKEN_EXPIRATION = Instant.parse("2020-04-19T20:54:45.000Z");
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @MockBean
+    private JwtTokenService jwtTokenService;
+
+    @MockBean
+    private TokenRevocationService revocationService;
+
+    @MockBean
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        JwtAuthentication adminAuthentication = JwtAuthentication.of(
+                "admin",
+                Set.of("ADMIN"),
+                "3c9b4f5a-6d7e-4f8a-9b0c-1d2e3f4a5b6c",
+                USER_TOKEN_EXPIRATION
+        );
+
+        when(jwtTokenService.tryToAuthenticate(ADMIN_TOKEN_VALUE)).thenReturn(Optional.of(adminAuthentication));
+
+        JwtAuthentication userAuthentication = JwtAuthentication.of(
+                "user",
+                Set.of("USER"),
+                USER_TOKEN_ID,
+                USER_TOKEN_EXPIRATION,
+                USER_SESSION_ID
+        );
+
+        when(jwtTokenService.tryToAuthenticate(USER_TOKEN_VALUE)).thenReturn(Optional.of(userAuthentication));
+    }
+
+    @Test
+    public void shouldRevokeCurrentToken() throws Exception {
+        ResponseEntity<Void> response = request(API_TOKENS_URL + "/current", USER_TOKEN_VALUE);
+
+        assertThat(response.getStatusCode(), is(equalTo(NO_CONTENT)));
+        verify(revocationService).revoke(USER_TOKEN_ID, USER_TOKEN_EXPIRATION);
+    }
+
+    @Test
+    public void shouldRevokeRefreshTokensOfCurrentLogin() throws Exception {
+        ResponseEntity<Void> response = request(API_TOKENS_URL + "/current", USER_TOKEN_VALUE);
+
+        assertThat(response.getStatusCode(), is(equalTo(NO_CONTENT)));
+        verify(refreshTokenService).revokeFamily(USER_SESSION_ID);
+    }
+
+    @Test
+    public void shouldRevokeCurrentTokenWithoutSession() throws Exception {
+        ResponseEntity<Void> response = request(API_TOKENS_URL + "/current", ADMIN_TOKEN_VALUE);
+
+        assertThat(response.getStatusCode(), is(equalTo(NO_CONTENT)));
+        verify(refreshTokenService, never()).revokeFamily(anyString());
+    }
+
+    @Test
+    public void shouldNotRevokeCurrentTokenWithoutToken() throws Exception {
+        ResponseEntity<Void> response = restTemplate.exchange(API_TOKENS_URL + "/current", HttpMethod.DELETE, null, Void.class);
+
+        assertThat(response.getStatusCode(), is(equalTo(UNAUTHORIZED)));
+        verify(revocationService, never()).revoke(anyString(), any());
+    }
+
+    @Test
+    public void shouldRevokeTokenByIdWithAdminRights() throws Exception {
+        ResponseEntity<Void> response = request(API_TOKENS_URL + "/" + USER_TOKEN_ID, ADMIN_TOKEN_VALUE);
+
+        assertThat(response.getStatusCode(), is(equalTo(NO_CONTENT)));
+        verify(revocationService).revoke(eq(USER_TOKEN_ID), any());
+    }
+
+    @Test
+    public void shouldNotRevokeTokenByIdWithUserRights() throws Exception {
+        ResponseEntity<Void> response = request(API_TOKENS_URL + "/" + USER_TOKEN_ID, USER_TOKEN_VALUE);
+
+        assertThat(response.getStatusCode(), is(equalTo(FORBIDDEN)));
+        verify(revocationService, never()).revoke(anyString(), any());
+    }
+
+    private ResponseEntity<Void> request(String url, String tokenValue) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Authorization", "Bearer " + tokenValue);
+
+        return restTemplate.exchange(url, HttpMethod.DELETE, new HttpEntity<>(headers), Void.class);
+    }
+}
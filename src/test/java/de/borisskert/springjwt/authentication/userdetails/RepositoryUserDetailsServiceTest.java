@@ -40,4 +40,19 @@ class RepositoryUserDetailsServiceTest {
         assertThat(details.getUsername(), is(equalTo("admin")));
         assertThat(details.getAuthorities(), is(equalTo(Set.of(new SimpleGrantedAuthority("ADMIN")))));
     }
+
+    @Test
+    public void shouldUpdatePassword() throws Exception {
+        ApplicationProperties.Credentials credentials = new ApplicationProperties.Credentials();
+        credentials.setUsername("admin");
+        credentials.setPassword("admin123");
+
+        adminAccountCreation.initializeAdmins(Set.of(credentials));
+
+        UserDetails details = userDetailsService.loadUserByUsername("admin");
+        UserDetails updated = userDetailsService.updatePassword(details, "my rehashed password");
+
+        assertThat(updated.getPassword(), is(equalTo("my rehashed password")));
+        assertThat(userDetailsService.loadUserByUsername("admin").getPassword(), is(equalTo("my rehashed password")));
+    }
 }
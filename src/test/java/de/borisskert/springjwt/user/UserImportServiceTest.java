@@ -0,0 +1,128 @@
+package de.borisskert.springjwt.user;
+
+import de.borisskert.springjwt.user.UserImportResult.RowError;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest(properties = "app.user-import.batch-size=2")
+@DirtiesContext
+@ActiveProfiles("IT")
+class UserImportServiceTest {
+
+    @Autowired
+    private UserImportService importService;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    public void shouldImportJsonArray() throws Exception {
+        UserImportResult result = importService.importUsers(json("["
+                + user("imp_arr_a", "imp_arr_a@fakemail.com") + ","
+                + user("imp_arr_b", "imp_arr_b@fakemail.com") + ","
+                + user("imp_arr_c", "imp_arr_c@fakemail.com")
+                + "]"));
+
+        assertThat(result, is(equalTo(UserImportResult.from(3, List.of()))));
+        assertThat(userService.findByUsername("imp_arr_c").orElseThrow(), is(equalTo(User.from(
+                "imp_arr_c",
+                "imp_arr_c@fakemail.com",
+                LocalDate.of(1990, 10, 3),
+                List.of("USER")
+        ))));
+    }
+
+    @Test
+    public void shouldImportNdjson() throws Exception {
+        UserImportResult result = importService.importUsers(json(
+                user("imp_nd_a", "imp_nd_a@fakemail.com") + "\n"
+                        + user("imp_nd_b", "imp_nd_b@fakemail.com") + "\n"
+        ));
+
+        assertThat(result, is(equalTo(UserImportResult.from(2, List.of()))));
+        assertThat(userService.findByUsername("imp_nd_a").isPresent(), is(equalTo(true)));
+        assertThat(userService.findByUsername("imp_nd_b").isPresent(), is(equalTo(true)));
+    }
+
+    @Test
+    public void shouldReportInvalidUsersWithoutAbortingImport() throws Exception {
+        UserImportResult result = importService.importUsers(json(
+                user("imp_inv_a", "imp_inv_a@fakemail.com") + "\n"
+                        + user("imp_inv_b", "no email") + "\n"
+                        + "{\"username\":\"imp_inv_c\",\"dateOfBirth\":\"no date\"}\n"
+                        + "{\"username\":\"imp_inv_d\",\"email\":\"imp_inv_d@fakemail.com\",\"dateOfBirth\":\"1990-10-03\",\"roles\":[\"GUEST\"]}\n"
+                        + user("imp_inv_e", "imp_inv_e@fakemail.com") + "\n"
+        ));
+
+        assertThat(result.getImported(), is(equalTo(2)));
+        assertThat(result.getErrors(), hasSize(3));
+        assertThat(result.getErrors().get(0), is(equalTo(RowError.of(1, "imp_inv_b", "email must be a well-formed email address"))));
+        assertThat(result.getErrors().get(1).getRow(), is(equalTo(2)));
+        assertThat(result.getErrors().get(2), is(equalTo(RowError.of(3, "imp_inv_d", "roles[].<iterable element> must be a known role"))));
+
+        assertThat(userService.findByUsername("imp_inv_e").isPresent(), is(equalTo(true)));
+    }
+
+    @Test
+    public void shouldReportExistingAndDuplicatedUsernames() throws Exception {
+        userService.create(User.from("imp_dup_a", "imp_dup_a@fakemail.com", LocalDate.of(1990, 10, 3), List.of("USER")));
+
+        UserImportResult result = importService.importUsers(json(
+                user("imp_dup_a", "imp_dup_a2@fakemail.com") + "\n"
+                        + user("imp_dup_b", "imp_dup_b@fakemail.com") + "\n"
+                        + user("imp_dup_b", "imp_dup_b2@fakemail.com") + "\n"
+        ));
+
+        assertThat(result, is(equalTo(UserImportResult.from(1, List.of(
+                RowError.of(0, "imp_dup_a", "Username 'imp_dup_a' already exists"),
+                RowError.of(2, "imp_dup_b", "Username 'imp_dup_b' already exists")
+        )))));
+    }
+
+    @Test
+    public void shouldReportDuplicatedEmailsAndImportTheRestOfTheBatch() throws Exception {
+        UserImportResult result = importService.importUsers(json(
+                user("imp_mail_a", "imp_mail@fakemail.com") + "\n"
+                        + user("imp_mail_b", "imp_mail@fakemail.com") + "\n"
+        ));
+
+        assertThat(result, is(equalTo(UserImportResult.from(1, List.of(
+                RowError.of(1, "imp_mail_b", "User conflicts with an existing user")
+        )))));
+        assertThat(userService.findByUsername("imp_mail_a").isPresent(), is(equalTo(true)));
+    }
+
+    @Test
+    public void shouldStopAtMalformedJson() throws Exception {
+        UserImportResult result = importService.importUsers(json(
+                user("imp_mal_a", "imp_mal_a@fakemail.com") + "\n"
+                        + "{\"username\":\n"
+        ));
+
+        assertThat(result.getImported(), is(equalTo(1)));
+        assertThat(result.getErrors(), hasSize(1));
+        assertThat(result.getErrors().get(0).getRow(), is(equalTo(1)));
+    }
+
+    private static String user(String username, String email) {
+        return "{\"username\":\"" + username + "\",\"email\":\"" + email + "\",\"dateOfBirth\":\"1990-10-03\",\"roles\":[\"USER\"]}";
+    }
+
+    private static InputStream json(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,5 +1,8 @@
 package de.borisskert.springjwt.user;
 
+import de.borisskert.springjwt.user.exception.UserAlreadyExistsException;
+import de.borisskert.springjwt.user.exception.UserNotFoundException;
+import de.borisskert.springjwt.user.exception.UserVersionMismatchException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -7,14 +10,27 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest
 @DirtiesContext
@@ -44,6 +60,55 @@ class UserServiceTest {
         assertThat(actual, is(not(sameInstance(user))));
     }
 
+    @Test
+    public void shouldProvideCachedUser() throws Exception {
+        User user = User.from(
+                "cached_user",
+                "cached_user@fakemail.com",
+                LocalDate.of(1990, 10, 3),
+                MockUsers.USER_ROLE
+        );
+
+        String createdId = service.create(user);
+
+        User first = service.getUserById(createdId).orElseThrow();
+        User second = service.getUserById(createdId).orElseThrow();
+
+        assertThat(second, is(sameInstance(first)));
+    }
+
+    @Test
+    public void shouldProvideUsersPageByPage() throws Exception {
+        service.create(User.from("page_c", "page_c@fakemail.com", LocalDate.of(1990, 10, 3), MockUsers.USER_ROLE));
+        service.create(User.from("page_a", "page_a@fakemail.com", LocalDate.of(1990, 10, 3), MockUsers.USER_ROLE));
+        service.create(User.from("page_b", "page_b@fakemail.com", LocalDate.of(1990, 10, 3), MockUsers.USER_ROLE));
+
+        List<User> firstPage = service.getUsersAfter("page_", 2);
+        List<User> secondPage = service.getUsersAfter("page_b", 1);
+
+        assertThat(usernamesOf(firstPage), is(equalTo(List.of("page_a", "page_b"))));
+        assertThat(usernamesOf(secondPage), is(equalTo(List.of("page_c"))));
+    }
+
+    @Test
+    public void shouldVisitAllUsersInBatches() throws Exception {
+        service.create(User.from("batch_a", "batch_a@fakemail.com", LocalDate.of(1990, 10, 3), MockUsers.USER_ROLE));
+        service.create(User.from("batch_b", "batch_b@fakemail.com", LocalDate.of(1990, 10, 3), MockUsers.USER_ROLE));
+
+        List<String> visited = new ArrayList<>();
+        service.forEachUser(1, user -> visited.add(user.getUsername()));
+
+        List<String> allUsernames = usernamesOf(service.getUsersAfter(UserService.FIRST_USERNAME, Integer.MAX_VALUE));
+        assertThat(visited, is(equalTo(allUsernames)));
+        assertThat(visited, hasItems("batch_a", "batch_b"));
+    }
+
+    private List<String> usernamesOf(Collection<User> users) {
+        return users.stream()
+                .map(User::getUsername)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
     @Test
     public void shouldInsertUserWithSpecifiedId() throws Exception {
         String id = MockUsers.USER_ID_TO_INSERT;
@@ -74,4 +139,153 @@ class UserServiceTest {
         assertThat(actual.getDateOfBirth(), is(equalTo(LocalDate.of(1943, 11, 29))));
         assertThat(actual.getRoles(), containsInAnyOrder("USER"));
     }
+
+    @Test
+    public void shouldNotCreateUserWithExistingUsername() throws Exception {
+        service.create(User.from("taken_name", "taken_name@fakemail.com", LocalDate.of(1990, 10, 3), MockUsers.USER_ROLE));
+
+        UserAlreadyExistsException exception = assertThrows(
+                UserAlreadyExistsException.class,
+                () -> service.create(User.from("taken_name", "other_name@fakemail.com", LocalDate.of(1990, 10, 3), MockUsers.USER_ROLE))
+        );
+
+        assertThat(exception.getMessage(), is(equalTo("Username 'taken_name' already exists")));
+    }
+
+    @Test
+    public void shouldNotInsertUserWithExistingId() throws Exception {
+        String id = "0b6f5e3c-58a4-4d7e-9d7f-1a1e8e2b4c55";
+        service.insert(id, User.from("taken_id_a", "taken_id_a@fakemail.com", LocalDate.of(1990, 10, 3), MockUsers.USER_ROLE));
+
+        UserAlreadyExistsException exception = assertThrows(
+                UserAlreadyExistsException.class,
+                () -> service.insert(id, User.from("taken_id_b", "taken_id_b@fakemail.com", LocalDate.of(1990, 10, 3), MockUsers.USER_ROLE))
+        );
+
+        assertThat(exception.getMessage(), is(equalTo("Id '" + id + "' already exists")));
+        assertThat(service.getUserById(id).orElseThrow().getUsername(), is(equalTo("taken_id_a")));
+    }
+
+    @Test
+    public void shouldCreateJustOneOfConcurrentUsersWithSameUsername() throws Exception {
+        int attempts = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(attempts);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+
+        for (int i = 0; i < attempts; i++) {
+            String email = "concurrent" + i + "@fakemail.com";
+
+            results.add(executor.submit(() -> {
+                start.await();
+                return service.create(User.from("concurrent", email, LocalDate.of(1990, 10, 3), MockUsers.USER_ROLE));
+            }));
+        }
+
+        start.countDown();
+
+        int created = 0;
+        int conflicts = 0;
+
+        for (Future<String> result : results) {
+            try {
+                result.get(10, TimeUnit.SECONDS);
+                created++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause(), is(instanceOf(UserAlreadyExistsException.class)));
+                conflicts++;
+            }
+        }
+
+        executor.shutdown();
+
+        assertThat(created, is(equalTo(1)));
+        assertThat(conflicts, is(equalTo(attempts - 1)));
+    }
+
+    @Test
+    public void shouldPatchJustSpecifiedValues() throws Exception {
+        String id = service.create(User.from("patch_me", "patch_me@fakemail.com", LocalDate.of(1990, 10, 3), MockUsers.USER_ROLE));
+        service.getUserById(id);
+
+        service.patch(id, UserPatch.builder().email("patched@fakemail.com").build(), null);
+
+        User patched = service.getUserById(id).orElseThrow();
+        assertThat(patched.getUsername(), is(equalTo("patch_me")));
+        assertThat(patched.getEmail(), is(equalTo("patched@fakemail.com")));
+        assertThat(patched.getDateOfBirth(), is(equalTo(LocalDate.of(1990, 10, 3))));
+        assertThat(patched.getRoles(), containsInAnyOrder("USER"));
+        assertThat(service.findByUsername("patch_me").orElseThrow().getEmail(), is(equalTo("patched@fakemail.com")));
+    }
+
+    @Test
+    public void shouldPatchUserInExpectedVersion() throws Exception {
+        String id = service.create(User.from("patch_ver", "patch_ver@fakemail.com", LocalDate.of(1990, 10, 3), MockUsers.USER_ROLE));
+        Long version = service.getUserById(id).orElseThrow().getVersion().orElseThrow();
+
+        service.patch(id, UserPatch.builder().username("patched_ver").role("ADMIN").build(), version);
+
+        User patched = service.getUserById(id).orElseThrow();
+        assertThat(patched.getUsername(), is(equalTo("patched_ver")));
+        assertThat(patched.getRoles(), containsInAnyOrder("ADMIN"));
+        assertThat(patched.getVersion().orElseThrow(), is(equalTo(version + 1)));
+        assertThat(service.findByUsername("patch_ver").isEmpty(), is(equalTo(true)));
+    }
+
+    @Test
+    public void shouldNotPatchUserInOutdatedVersion() throws Exception {
+        String id = service.create(User.from("patch_old", "patch_old@fakemail.com", LocalDate.of(1990, 10, 3), MockUsers.USER_ROLE));
+        Long version = service.getUserById(id).orElseThrow().getVersion().orElseThrow();
+        service.patch(id, UserPatch.builder().email("patch_first@fakemail.com").build(), version);
+
+        assertThrows(
+                UserVersionMismatchException.class,
+                () -> service.patch(id, UserPatch.builder().email("patch_second@fakemail.com").build(), version)
+        );
+
+        assertThat(service.getUserById(id).orElseThrow().getEmail(), is(equalTo("patch_first@fakemail.com")));
+    }
+
+    @Test
+    public void shouldNotPatchNotExistingUser() throws Exception {
+        String id = "5d0c8a2e-7f3b-4c1a-9e6d-2b8f4a6c1e07";
+
+        assertThrows(
+                UserNotFoundException.class,
+                () -> service.patch(id, UserPatch.builder().email("nobody@fakemail.com").build(), null)
+        );
+
+        assertThrows(
+                UserNotFoundException.class,
+                () -> service.patch(id, UserPatch.builder().email("nobody@fakemail.com").build(), 0L)
+        );
+    }
+
+    @Test
+    public void shouldNotPatchUsernameToExistingOne() throws Exception {
+        service.create(User.from("patch_taken", "patch_taken@fakemail.com", LocalDate.of(1990, 10, 3), MockUsers.USER_ROLE));
+        String id = service.create(User.from("patch_taker", "patch_taker@fakemail.com", LocalDate.of(1990, 10, 3), MockUsers.USER_ROLE));
+
+        UserAlreadyExistsException exception = assertThrows(
+                UserAlreadyExistsException.class,
+                () -> service.patch(id, UserPatch.builder().username("patch_taken").build(), null)
+        );
+
+        assertThat(exception.getMessage(), is(equalTo("Username 'patch_taken' already exists")));
+        assertThat(service.getUserById(id).orElseThrow().getUsername(), is(equalTo("patch_taker")));
+    }
+
+    @Test
+    public void shouldReportTakenEmailWhenPatchKeepsOwnUsername() throws Exception {
+        service.create(User.from("mail_owner", "mail_taken@fakemail.com", LocalDate.of(1990, 10, 3), MockUsers.USER_ROLE));
+        String id = service.create(User.from("mail_taker", "mail_taker@fakemail.com", LocalDate.of(1990, 10, 3), MockUsers.USER_ROLE));
+
+        UserAlreadyExistsException exception = assertThrows(
+                UserAlreadyExistsException.class,
+                () -> service.patch(id, UserPatch.builder().username("mail_taker").email("mail_taken@fakemail.com").build(), null)
+        );
+
+        assertThat(exception.getMessage(), is(equalTo("Email 'mail_taken@fakemail.com' already exists")));
+        assertThat(service.getUserById(id).orElseThrow().getEmail(), is(equalTo("mail_taker@fakemail.com")));
+    }
 }
@@ -3,6 +3,7 @@ package de.borisskert.springjwt.user;
 import de.borisskert.springjwt.authentication.jwt.JwtTokenService;
 import de.borisskert.springjwt.user.exception.UserAlreadyExistsException;
 import de.borisskert.springjwt.user.exception.UserNotFoundException;
+import de.borisskert.springjwt.user.exception.UserVersionMismatchException;
 import org.apache.http.client.HttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.junit.jupiter.api.AfterAll;
@@ -32,6 +33,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import static de.borisskert.springjwt.user.MockUsers.USER_ONE;
 import static de.borisskert.springjwt.user.MockUsers.USER_ONE_ID;
@@ -41,9 +43,13 @@ import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.CONFLICT;
@@ -52,6 +58,7 @@ import static org.springframework.http.HttpStatus.FORBIDDEN;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.NO_CONTENT;
 import static org.springframework.http.HttpStatus.OK;
+import static org.springframework.http.HttpStatus.PRECONDITION_FAILED;
 import static org.springframework.http.HttpStatus.UNAUTHORIZED;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -61,8 +68,8 @@ class UsersEndpointTest {
     };
 
     private static final String API_USERS_URL = "/api/users";
-    private static final String ADMIN_TOKEN_VALUE = "MY_ADMIN_TOKEN_VALUE";
-    private static final String USER_TOKEN_VALUE = "MY_USER_TOKEN_VALUE";
+    private static final String ADMIN_TOKEN_VALUE = "MY_ADMIN.TOKEN.VALUE";
+    private static final String USER_TOKEN_VALUE = "MY_USER.TOKEN.VALUE";
 
     @Autowired
     private TestRestTemplate restTemplate;
@@ -70,6 +77,9 @@ class UsersEndpointTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private UserImportService userImportService;
+
     @MockBean
     private MeService meService;
 
@@ -301,7 +311,7 @@ class UsersEndpointTest {
             userOne = User.from("username 1", "user1@fakemail.com", LocalDate.of(1990, 10, 3));
             userTwo = User.from("username 2", "user2@fakemail.com", LocalDate.of(1990, 10, 2));
 
-            when(userService.getAllUsers()).thenReturn(List.of(userOne, userTwo));
+            when(userService.getUsersAfter("", 100)).thenReturn(List.of(userOne, userTwo));
         }
 
         @Test
@@ -312,6 +322,14 @@ class UsersEndpointTest {
 
             List<User> body = response.getBody();
             assertThat(body, containsInAnyOrder(userOne, userTwo));
+            assertThat(response.getHeaders().containsKey(UsersEndpoint.NEXT_CURSOR_HEADER), is(equalTo(false)));
+        }
+
+        @Test
+        public void shouldProvideFirstPageByDefault() throws Exception {
+            getAllUsersWithAdminRights();
+
+            verify(userService).getUsersAfter("", 100);
         }
 
         @Test
@@ -338,6 +356,98 @@ class UsersEndpointTest {
         }
     }
 
+    @Nested
+    class GetPage {
+
+        private User userOne;
+        private User userTwo;
+
+        @BeforeEach
+        public void setup() throws Exception {
+            userOne = User.from("username 1", "user1@fakemail.com", LocalDate.of(1990, 10, 3));
+            userTwo = User.from("username 2", "user2@fakemail.com", LocalDate.of(1990, 10, 2));
+
+            when(userService.getUsersAfter("", 2)).thenReturn(List.of(userOne, userTwo));
+            when(userService.getUsersAfter("username 2", 2)).thenReturn(List.of());
+        }
+
+        @Test
+        public void shouldProvideFirstPageWithCursor() throws Exception {
+            ResponseEntity<List<User>> response = requestWithAdminRights(API_USERS_URL + "?limit=2", HttpMethod.GET, null, USER_LIST_TYPE);
+
+            assertThat(response.getStatusCode(), is(equalTo(OK)));
+            assertThat(response.getBody(), is(equalTo(List.of(userOne, userTwo))));
+            assertThat(response.getHeaders().getFirst(UsersEndpoint.NEXT_CURSOR_HEADER), is(equalTo("username 2")));
+        }
+
+        @Test
+        public void shouldProvideLastPageWithoutCursor() throws Exception {
+            ResponseEntity<List<User>> response = requestWithAdminRights(API_USERS_URL + "?limit=2&after={after}", HttpMethod.GET, null, USER_LIST_TYPE, "username 2");
+
+            assertThat(response.getStatusCode(), is(equalTo(OK)));
+            assertThat(response.getBody(), is(equalTo(List.of())));
+            assertThat(response.getHeaders().containsKey(UsersEndpoint.NEXT_CURSOR_HEADER), is(equalTo(false)));
+        }
+
+        @Test
+        public void shouldNotAllowTooLargePage() throws Exception {
+            ResponseEntity<Void> response = requestWithAdminRights(API_USERS_URL + "?limit=1001", HttpMethod.GET, null, Void.class);
+
+            assertThat(response.getStatusCode(), is(equalTo(BAD_REQUEST)));
+        }
+
+        @Test
+        public void shouldNotAllowRequestWithUserRights() throws Exception {
+            ResponseEntity<Void> response = requestWithUserRights(API_USERS_URL + "?limit=2", HttpMethod.GET, null, Void.class);
+
+            assertThat(response.getStatusCode(), is(equalTo(FORBIDDEN)));
+        }
+    }
+
+    @Nested
+    class Stream {
+
+        @BeforeEach
+        public void setup() throws Exception {
+            User userOne = User.from("username 1", "user1@fakemail.com", LocalDate.of(1990, 10, 3));
+            User userTwo = User.from("username 2", "user2@fakemail.com", LocalDate.of(1990, 10, 2));
+
+            doAnswer(invocation -> {
+                Consumer<User> consumer = invocation.getArgument(1);
+                consumer.accept(userOne);
+                consumer.accept(userTwo);
+
+                return null;
+            }).when(userService).forEachUser(anyInt(), any());
+        }
+
+        @Test
+        public void shouldStreamUsersAsNdjson() throws Exception {
+            HttpHeaders headers = new HttpHeaders();
+            headers.add("Authorization", "Bearer " + ADMIN_TOKEN_VALUE);
+            headers.add(HttpHeaders.ACCEPT, UsersEndpoint.NDJSON_VALUE);
+
+            ResponseEntity<String> response = restTemplate.exchange(API_USERS_URL, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+            assertThat(response.getStatusCode(), is(equalTo(OK)));
+            assertThat(response.getBody(), is(equalTo(
+                    "{\"username\":\"username 1\",\"email\":\"user1@fakemail.com\",\"dateOfBirth\":\"1990-10-03\",\"roles\":[]}\n"
+                            + "{\"username\":\"username 2\",\"email\":\"user2@fakemail.com\",\"dateOfBirth\":\"1990-10-02\",\"roles\":[]}\n"
+            )));
+        }
+
+        @Test
+        public void shouldNotAllowRequestWithUserRights() throws Exception {
+            HttpHeaders headers = new HttpHeaders();
+            headers.add("Authorization", "Bearer " + USER_TOKEN_VALUE);
+            headers.add(HttpHeaders.ACCEPT, UsersEndpoint.NDJSON_VALUE);
+
+            ResponseEntity<String> response = restTemplate.exchange(API_USERS_URL, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+            assertThat(response.getStatusCode(), is(equalTo(FORBIDDEN)));
+        }
+    }
+
     @Nested
     class GetMe {
 
@@ -591,6 +701,22 @@ class UsersEndpointTest {
                     assertThat(response.getStatusCode(), is(equalTo(BAD_REQUEST)));
                 }
             }
+
+            @Nested
+            class InvalidRoles {
+                @Test
+                public void shouldNotAllowUserWithUnknownRole() throws Exception {
+                    userToCreate = Map.of(
+                            "username", "my_username",
+                            "email", "my@fakemail.com",
+                            "dateOfBirth", "1945-05-08",
+                            "roles", List.of("USER", "GUEST")
+                    );
+
+                    ResponseEntity<Void> response = createUserWithAdminRights(userToCreate);
+                    assertThat(response.getStatusCode(), is(equalTo(BAD_REQUEST)));
+                }
+            }
         }
 
         private ResponseEntity<Void> createUserWithAdminRights(Map<String, Object> user) {
@@ -723,6 +849,23 @@ class UsersEndpointTest {
                     assertThat(response.getStatusCode(), is(equalTo(BAD_REQUEST)));
                 }
             }
+
+            @Nested
+            class InvalidRoles {
+                @Test
+                public void shouldNotAllowUserWithUnknownRole() throws Exception {
+                    invalidUserToInsert = Map.of(
+                            "username", "my_username",
+                            "email", "user@fakemail.com",
+                            "dateOfBirth", "1948-06-21",
+                            "roles", List.of("GUEST")
+                    );
+
+                    ResponseEntity<Void> response = insertUserWithAdminRights(VALID_USER_ID, invalidUserToInsert);
+
+                    assertThat(response.getStatusCode(), is(equalTo(BAD_REQUEST)));
+                }
+            }
         }
 
         @Nested
@@ -1011,7 +1154,7 @@ class UsersEndpointTest {
                 );
 
                 doThrow(new UserNotFoundException("User with id '2884a717-5a17-49fa-84cc-d4321207c7f9' not found"))
-                        .when(userService).patch(eq(USER_ID), any());
+                        .when(userService).patch(eq(USER_ID), any(), any());
             }
 
             @Test
@@ -1041,6 +1184,64 @@ class UsersEndpointTest {
             }
         }
 
+        @Nested
+        class WithVersion {
+            private static final String USER_ID = "2884a717-5a17-49fa-84cc-d4321207c7f9";
+            private Map<String, Object> patch;
+
+            @BeforeEach
+            public void setup() throws Exception {
+                reset(userService);
+
+                patch = Map.of(
+                        "email", "user@fakemail.com",
+                        "roles", List.of()
+                );
+
+                doThrow(new UserVersionMismatchException("User with id '2884a717-5a17-49fa-84cc-d4321207c7f9' is not in version 2"))
+                        .when(userService).patch(eq(USER_ID), any(), eq(2L));
+            }
+
+            @Test
+            public void shouldPatchUserInVersionOfIfMatchHeader() throws Exception {
+                ResponseEntity<Void> response = patchUserWithAdminRights(USER_ID, patch, "\"3\"");
+
+                assertThat(response.getStatusCode(), is(equalTo(NO_CONTENT)));
+                verify(userService).patch(eq(USER_ID), any(), eq(3L));
+            }
+
+            @Test
+            public void shouldAcceptWeakETag() throws Exception {
+                ResponseEntity<Void> response = patchUserWithAdminRights(USER_ID, patch, "W/\"3\"");
+
+                assertThat(response.getStatusCode(), is(equalTo(NO_CONTENT)));
+                verify(userService).patch(eq(USER_ID), any(), eq(3L));
+            }
+
+            @Test
+            public void shouldNotPatchUserInOutdatedVersion() throws Exception {
+                ResponseEntity<Void> response = patchUserWithAdminRights(USER_ID, patch, "\"2\"");
+
+                assertThat(response.getStatusCode(), is(equalTo(PRECONDITION_FAILED)));
+            }
+
+            @Test
+            public void shouldRejectMalformedIfMatchHeader() throws Exception {
+                ResponseEntity<Void> response = patchUserWithAdminRights(USER_ID, patch, "abc");
+
+                assertThat(response.getStatusCode(), is(equalTo(BAD_REQUEST)));
+                verify(userService, never()).patch(any(), any(), any());
+            }
+
+            @Test
+            public void shouldRejectListOfETags() throws Exception {
+                ResponseEntity<Void> response = patchUserWithAdminRights(USER_ID, patch, "\"1\", \"2\"");
+
+                assertThat(response.getStatusCode(), is(equalTo(BAD_REQUEST)));
+                verify(userService, never()).patch(any(), any(), any());
+            }
+        }
+
         @Nested
         class InvalidUserId {
             private static final String USER_ID = "abc";
@@ -1250,12 +1451,35 @@ class UsersEndpointTest {
                     assertThat(response.getStatusCode(), is(equalTo(UNAUTHORIZED)));
                 }
             }
+
+            @Nested
+            class UnknownRole {
+                @Test
+                public void shouldNotAllowPatchWithUnknownRole() throws Exception {
+                    Map<String, Object> patch = Map.of("roles", List.of("GUEST"));
+
+                    ResponseEntity<Void> response = patchUserWithAdminRights(USER_ID, patch);
+
+                    assertThat(response.getStatusCode(), is(equalTo(BAD_REQUEST)));
+                    verify(userService, never()).patch(any(), any(), any());
+                }
+            }
         }
 
         private ResponseEntity<Void> patchUserWithAdminRights(String userId, Map<String, Object> userPatch) {
             return requestWithAdminRights(API_USERS_URL + "/" + userId, HttpMethod.PATCH, userPatch, Void.class);
         }
 
+        private ResponseEntity<Void> patchUserWithAdminRights(String userId, Map<String, Object> userPatch, String ifMatch) {
+            HttpHeaders headers = new HttpHeaders();
+            headers.add("Authorization", "Bearer " + ADMIN_TOKEN_VALUE);
+            headers.setIfMatch(ifMatch);
+
+            HttpEntity<Object> httpEntity = new HttpEntity<>(userPatch, headers);
+
+            return patchRestTemplate.exchange(API_USERS_URL + "/" + userId, HttpMethod.PATCH, httpEntity, Void.class);
+        }
+
         private ResponseEntity<Void> patchUserWithUserRights(String userId, Map<String, Object> userPatch) {
             return requestWithUserRights(API_USERS_URL + "/" + userId, HttpMethod.PATCH, userPatch, Void.class);
         }
@@ -1348,6 +1572,23 @@ class UsersEndpointTest {
             }
         }
 
+        @Nested
+        class WithToken {
+            @BeforeEach
+            public void setup() throws Exception {
+                reset(userService);
+                when(userService.signUp(any())).thenReturn(SIGN_UP_USER_ID);
+            }
+
+            @Test
+            public void shouldNotVerifyToken() throws Exception {
+                ResponseEntity<Void> response = requestWithUserRights(API_USERS_SIGN_UP_URL, HttpMethod.POST, userToSignUp, Void.class);
+
+                assertThat(response.getStatusCode(), is(equalTo(CREATED)));
+                verify(jwtTokenService, never()).tryToAuthenticate(any());
+            }
+        }
+
         @Test
         public void shouldNotAllowToSignUpNewUserWithoutPassword() throws Exception {
             Map<String, String> withoutPassword = Map.of(
@@ -1501,9 +1742,64 @@ class UsersEndpointTest {
         }
     }
 
+    @Nested
+    class Import {
+        private static final String API_USERS_IMPORT_URL = "/api/users/import";
+
+        private static final String USERS_TO_IMPORT =
+                "{\"username\":\"import_a\",\"email\":\"import_a@fakemail.com\",\"dateOfBirth\":\"1990-10-03\",\"roles\":[\"USER\"]}\n"
+                        + "{\"username\":\"import_b\",\"email\":\"no email\",\"dateOfBirth\":\"1990-10-02\",\"roles\":[\"USER\"]}\n";
+
+        @BeforeEach
+        public void setup() throws Exception {
+            UserImportResult result = UserImportResult.from(
+                    1,
+                    List.of(UserImportResult.RowError.of(1, "import_b", "email must be a well-formed email address"))
+            );
+
+            when(userImportService.importUsers(any())).thenReturn(result);
+        }
+
+        @Test
+        public void shouldImportUsers() throws Exception {
+            HttpHeaders headers = new HttpHeaders();
+            headers.add("Authorization", "Bearer " + ADMIN_TOKEN_VALUE);
+            headers.add(HttpHeaders.CONTENT_TYPE, UsersEndpoint.NDJSON_VALUE);
+
+            ResponseEntity<String> response = restTemplate.exchange(
+                    API_USERS_IMPORT_URL,
+                    HttpMethod.POST,
+                    new HttpEntity<>(USERS_TO_IMPORT, headers),
+                    String.class
+            );
+
+            assertThat(response.getStatusCode(), is(equalTo(OK)));
+            assertThat(response.getBody(), is(equalTo(
+                    "{\"imported\":1,\"errors\":[{\"row\":1,\"username\":\"import_b\",\"message\":\"email must be a well-formed email address\"}]}"
+            )));
+        }
+
+        @Test
+        public void shouldNotAllowRequestWithUserRights() throws Exception {
+            HttpHeaders headers = new HttpHeaders();
+            headers.add("Authorization", "Bearer " + USER_TOKEN_VALUE);
+            headers.add(HttpHeaders.CONTENT_TYPE, UsersEndpoint.NDJSON_VALUE);
+
+            ResponseEntity<String> response = restTemplate.exchange(
+                    API_USERS_IMPORT_URL,
+                    HttpMethod.POST,
+                    new HttpEntity<>(USERS_TO_IMPORT, headers),
+                    String.class
+            );
+
+            assertThat(response.getStatusCode(), is(equalTo(FORBIDDEN)));
+            verify(userImportService, never()).importUsers(any());
+        }
+    }
+
     @AfterEach
     public void cleanup() {
-        reset(userService, meService, jwtTokenService);
+        reset(userService, userImportService, meService, jwtTokenService);
     }
 
     private <T> ResponseEntity<T> requestWithAdminRights(String url, HttpMethod method, Object body, Class<T> responseType) {
@@ -1515,13 +1811,13 @@ class UsersEndpointTest {
         return restTemplate.exchange(url, method, httpEntity, responseType);
     }
 
-    private <T> ResponseEntity<List<T>> requestWithAdminRights(String url, HttpMethod method, Object body, ParameterizedTypeReference<List<T>> responseType) {
+    private <T> ResponseEntity<List<T>> requestWithAdminRights(String url, HttpMethod method, Object body, ParameterizedTypeReference<List<T>> responseType, Object... urlVariables) {
         HttpHeaders headers = new HttpHeaders();
         headers.add("Authorization", "Bearer " + ADMIN_TOKEN_VALUE);
 
         HttpEntity<Object> httpEntity = new HttpEntity<>(body, headers);
 
-        return restTemplate.exchange(url, method, httpEntity, responseType);
+        return restTemplate.exchange(url, method, httpEntity, responseType, urlVariables);
     }
 
     private <T> ResponseEntity<T> requestWithUserRights(String url, HttpMethod method, Object body, Class<T> responseType) {
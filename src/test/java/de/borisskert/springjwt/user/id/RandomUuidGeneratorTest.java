@@ -0,0 +1,65 @@
+package de.borisskert.springjwt.user.id;
+
+import de.borisskert.springjwt.vaidation.Uuid;
+import org.junit.jupiter.api.Test;
+
+import javax.validation.constraints.Pattern;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+class RandomUuidGeneratorTest {
+
+    private final RandomUuidGenerator generator = new RandomUuidGenerator(new ThreadLocalEntropy());
+
+    @Test
+    public void shouldCreateVersion4Uuids() throws Exception {
+        UUID uuid = generator.next();
+
+        assertThat(uuid.version(), is(equalTo(4)));
+        assertThat(uuid.variant(), is(equalTo(2)));
+    }
+
+    @Test
+    public void shouldCreateValidUuids() throws Exception {
+        String regexp = Uuid.class.getAnnotation(Pattern.class).regexp();
+        String id = generator.nextId();
+
+        assertThat(id.matches(regexp), is(equalTo(true)));
+    }
+
+    @Test
+    public void shouldCreateUniqueIdsAcrossThreads() throws Exception {
+        int threads = 8;
+        int idsPerThread = 10_000;
+
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        List<Callable<Object>> tasks = IntStream.range(0, threads)
+                .mapToObj(thread -> (Callable<Object>) () -> {
+                    IntStream.range(0, idsPerThread).forEach(i -> ids.add(generator.nextId()));
+                    return null;
+                })
+                .collect(Collectors.toUnmodifiableList());
+
+        for (Future<Object> future : executor.invokeAll(tasks)) {
+            future.get();
+        }
+
+        executor.shutdown();
+
+        assertThat(ids.size(), is(equalTo(threads * idsPerThread)));
+    }
+}
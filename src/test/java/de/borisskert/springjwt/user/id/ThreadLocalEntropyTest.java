@@ -0,0 +1,40 @@
+package de.borisskert.springjwt.user.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+class ThreadLocalEntropyTest {
+
+    private final ThreadLocalEntropy entropy = new ThreadLocalEntropy();
+
+    @Test
+    public void shouldNeverRepeatBytesAcrossBlocks() throws Exception {
+        Set<String> drawn = new HashSet<>();
+
+        for (int i = 0; i < 1_000; i++) {
+            byte[] bytes = new byte[10];
+            entropy.nextBytes(bytes);
+
+            drawn.add(Arrays.toString(bytes));
+        }
+
+        assertThat(drawn.size(), is(equalTo(1_000)));
+    }
+
+    @Test
+    public void shouldFillBytesLargerThanBlock() throws Exception {
+        byte[] bytes = new byte[4096];
+        entropy.nextBytes(bytes);
+
+        byte[] tail = Arrays.copyOfRange(bytes, 2048, 4096);
+
+        assertThat(Arrays.equals(tail, new byte[2048]), is(equalTo(false)));
+    }
+}
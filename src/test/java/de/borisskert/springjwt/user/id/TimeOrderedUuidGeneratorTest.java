@@ -0,0 +1,70 @@
+package de.borisskert.springjwt.user.id;
+
+import de.borisskert.springjwt.vaidation.Uuid;
+import org.junit.jupiter.api.Test;
+
+import javax.validation.constraints.Pattern;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+
+class TimeOrderedUuidGeneratorTest {
+
+    private static final Instant NOW = Instant.parse("2020-04-01T10:15:30.123Z");
+
+    @Test
+    public void shouldCreateVersion7Uuids() throws Exception {
+        UUID uuid = generatorAt(NOW).next();
+
+        assertThat(uuid.version(), is(equalTo(7)));
+        assertThat(uuid.variant(), is(equalTo(2)));
+    }
+
+    @Test
+    public void shouldStartWithTimestamp() throws Exception {
+        UUID uuid = generatorAt(NOW).next();
+
+        assertThat(uuid.getMostSignificantBits() >>> 16, is(equalTo(NOW.toEpochMilli())));
+    }
+
+    @Test
+    public void shouldSortLaterIdsAfterEarlierIds() throws Exception {
+        String earlier = generatorAt(NOW).nextId();
+        String later = generatorAt(NOW.plusMillis(1)).nextId();
+
+        assertThat(earlier.compareTo(later), is(lessThan(0)));
+        assertThat(later.compareTo(earlier), is(greaterThan(0)));
+    }
+
+    @Test
+    public void shouldCreateUniqueIdsWithinSameMillisecond() throws Exception {
+        TimeOrderedUuidGenerator generator = generatorAt(NOW);
+        Set<String> ids = new HashSet<>();
+
+        IntStream.range(0, 10_000).forEach(i -> ids.add(generator.nextId()));
+
+        assertThat(ids.size(), is(equalTo(10_000)));
+    }
+
+    @Test
+    public void shouldCreateValidUuids() throws Exception {
+        String regexp = Uuid.class.getAnnotation(Pattern.class).regexp();
+        String id = generatorAt(NOW).nextId();
+
+        assertThat(id.matches(regexp), is(equalTo(true)));
+    }
+
+    private static TimeOrderedUuidGenerator generatorAt(Instant instant) {
+        return new TimeOrderedUuidGenerator(Clock.fixed(instant, ZoneOffset.UTC), new ThreadLocalEntropy());
+    }
+}
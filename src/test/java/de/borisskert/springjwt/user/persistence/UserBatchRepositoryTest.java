@@ -0,0 +1,68 @@
+package de.borisskert.springjwt.user.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+/*
+ * Qualifies the tables by the default schema like the postgres profile does, where the plain table name 'user' would
+ * be a syntax error
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.default_schema=public")
+@DirtiesContext
+@ActiveProfiles("IT")
+class UserBatchRepositoryTest {
+
+    @Autowired
+    private UserBatchRepository batchRepository;
+
+    @Autowired
+    private UserRepository repository;
+
+    @Autowired
+    private UserTable userTable;
+
+    @Test
+    public void shouldNameUserTableLikeEntityMapping() throws Exception {
+        assertThat(userTable.getName(), is(equalTo("public.user")));
+    }
+
+    @Test
+    public void shouldInsertIntoQualifiedUserTable() throws Exception {
+        assertThat(
+                UserBatchRepository.insertStatementFor("public.user"),
+                is(equalTo("insert into public.user (id, username, email, date_of_birth, password, role_mask) values (?, ?, ?, ?, ?, ?)"))
+        );
+    }
+
+    @Test
+    public void shouldInsertUsers() throws Exception {
+        batchRepository.insertAll(List.of(
+                userEntity("0c4e7a2b-1d3f-4a5b-8c6d-7e8f9a0b1c2d", "batch_one"),
+                userEntity("1d5f8b3c-2e4a-4b6c-9d7e-8f9a0b1c2d3e", "batch_two")
+        ));
+
+        assertThat(repository.findOneByUsername("batch_one").isPresent(), is(equalTo(true)));
+        assertThat(repository.findOneByUsername("batch_two").isPresent(), is(equalTo(true)));
+    }
+
+    private static UserEntity userEntity(String id, String username) {
+        UserEntity entity = new UserEntity();
+        entity.setId(id);
+        entity.setUsername(username);
+        entity.setEmail(username + "@fakemail.com");
+        entity.setDateOfBirth(LocalDate.of(1990, 10, 3));
+        entity.setRoles(List.of("USER"));
+
+        return entity;
+    }
+}
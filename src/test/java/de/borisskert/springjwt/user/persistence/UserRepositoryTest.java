@@ -10,10 +10,14 @@ import org.springframework.test.context.ActiveProfiles;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @SpringBootTest
@@ -56,6 +60,110 @@ class UserRepositoryTest {
         assertThat(existingEntity.getRoles(), is(equalTo(List.of("ADMIN", "USER"))));
     }
 
+    @Test
+    public void shouldPersistLongPasswordHash() throws Exception {
+        String id = "0b3e7c4e-5a4c-4c3a-9a57-3c4a3a4c0f10";
+        String argon2Hash = "{argon2}$argon2id$v=19$m=4096,t=3,p=1$" + "s".repeat(22) + "$" + "h".repeat(43);
+
+        UserEntity entityToSave = new UserEntity();
+        entityToSave.setId(id);
+        entityToSave.setUsername("ohL4eith");
+        entityToSave.setEmail("ohL4eith@fakemail.com");
+        entityToSave.setDateOfBirth(LocalDate.of(1987, 11, 15));
+        entityToSave.setPassword(argon2Hash);
+
+        repository.save(entityToSave);
+
+        assertThat(repository.findPasswordFor("ohL4eith"), is(equalTo(Optional.of(argon2Hash))));
+    }
+
+    @Test
+    public void shouldProvideCredentials() throws Exception {
+        UserEntity entityToSave = new UserEntity();
+        entityToSave.setId("5d7a8f0c-29b1-4f4e-8d6e-0a4b9b1c2d3e");
+        entityToSave.setUsername("Ahgh7iej");
+        entityToSave.setEmail("Ahgh7iej@fakemail.com");
+        entityToSave.setDateOfBirth(LocalDate.of(1987, 11, 15));
+        entityToSave.setPassword("my encoded password");
+        entityToSave.setRoles(List.of("ADMIN", "USER"));
+
+        repository.save(entityToSave);
+
+        Optional<UserCredentials> maybe = repository.findCredentialsFor("Ahgh7iej");
+        assertThat(maybe.isPresent(), is(equalTo(true)));
+
+        UserCredentials credentials = maybe.get();
+        assertThat(credentials.getUsername(), is(equalTo("Ahgh7iej")));
+        assertThat(credentials.getPassword(), is(equalTo("my encoded password")));
+        assertThat(credentials.getRoles(), is(equalTo(List.of("ADMIN", "USER"))));
+    }
+
+    @Test
+    public void shouldFindUsersByRole() throws Exception {
+        UserEntity admin = new UserEntity();
+        admin.setId("8c1f0e2a-3b4d-4e5f-8a6b-7c8d9e0f1a2b");
+        admin.setUsername("Eeb5oowu");
+        admin.setEmail("Eeb5oowu@fakemail.com");
+        admin.setDateOfBirth(LocalDate.of(1987, 11, 15));
+        admin.setRoles(List.of("ADMIN"));
+
+        UserEntity user = new UserEntity();
+        user.setId("9d2f1e3b-4c5e-4f6a-9b7c-8d9e0f1a2b3c");
+        user.setUsername("Yai9ohco");
+        user.setEmail("Yai9ohco@fakemail.com");
+        user.setDateOfBirth(LocalDate.of(1987, 11, 15));
+        user.setRoles(List.of("USER"));
+
+        repository.save(admin);
+        repository.save(user);
+
+        List<String> admins = repository.findViewsByRolesIn(RoleRegistry.combinationsContaining("ADMIN"))
+                .stream()
+                .map(UserView::getUsername)
+                .collect(Collectors.toUnmodifiableList());
+
+        assertThat(admins, hasItem("Eeb5oowu"));
+        assertThat(admins, not(hasItem("Yai9ohco")));
+    }
+
+    @Test
+    public void shouldShareRolesOfUsersWithSameRoles() throws Exception {
+        UserEntity first = new UserEntity();
+        first.setId("bf4a3b5d-6e7a-4b8c-9d9e-0f1a2b3c4d5e");
+        first.setUsername("Oow5eiph");
+        first.setEmail("Oow5eiph@fakemail.com");
+        first.setDateOfBirth(LocalDate.of(1987, 11, 15));
+        first.setRoles(List.of("USER"));
+
+        UserEntity second = new UserEntity();
+        second.setId("c05b4c6e-7f8b-4c9d-8e0f-1a2b3c4d5e6f");
+        second.setUsername("Ieg8ahdu");
+        second.setEmail("Ieg8ahdu@fakemail.com");
+        second.setDateOfBirth(LocalDate.of(1987, 11, 15));
+        second.setRoles(List.of("USER"));
+
+        repository.save(first);
+        repository.save(second);
+
+        UserCredentials firstCredentials = repository.findCredentialsFor("Oow5eiph").get();
+        UserCredentials secondCredentials = repository.findCredentialsFor("Ieg8ahdu").get();
+
+        assertThat(firstCredentials.getRoles(), is(equalTo(List.of("USER"))));
+        assertThat(firstCredentials.getRoles(), is(sameInstance(secondCredentials.getRoles())));
+    }
+
+    @Test
+    public void shouldNotPersistUserWithUnknownRole() throws Exception {
+        UserEntity entityToSave = new UserEntity();
+        entityToSave.setId("ae3f2a4c-5d6f-4a7b-8c8d-9e0f1a2b3c4d");
+        entityToSave.setUsername("Ahk3ooqu");
+        entityToSave.setEmail("Ahk3ooqu@fakemail.com");
+        entityToSave.setDateOfBirth(LocalDate.of(1987, 11, 15));
+        entityToSave.setRoles(List.of("UNKNOWN"));
+
+        assertThrows(RuntimeException.class, () -> repository.save(entityToSave));
+    }
+
     @Test
     public void shouldNotPersistUserWithoutId() throws Exception {
         UserEntity entityToSave = new UserEntity();
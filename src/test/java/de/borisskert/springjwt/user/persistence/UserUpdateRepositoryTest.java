@@ -0,0 +1,50 @@
+package de.borisskert.springjwt.user.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+/*
+ * Qualifies the tables by the default schema like the postgres profile does, where the plain table name 'user' would
+ * be a syntax error
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.default_schema=public")
+@DirtiesContext
+@ActiveProfiles("IT")
+class UserUpdateRepositoryTest {
+    private static final String MY_ID = "2e6a9c4d-3f5b-4c7d-8e9f-0a1b2c3d4e5f";
+
+    @Autowired
+    private UserUpdateRepository updateRepository;
+
+    @Autowired
+    private UserRepository repository;
+
+    @Test
+    public void shouldUpdateUserInQualifiedTable() throws Exception {
+        UserEntity entity = new UserEntity();
+        entity.setId(MY_ID);
+        entity.setUsername("update_me");
+        entity.setEmail("update_me@fakemail.com");
+        entity.setDateOfBirth(LocalDate.of(1990, 10, 3));
+        entity.setRoles(List.of("USER"));
+        repository.saveAndFlush(entity);
+
+        boolean updated = updateRepository.update(MY_ID, 0L, null, "updated@fakemail.com", null, List.of("ADMIN"));
+
+        UserEntity updatedEntity = repository.findById(MY_ID).orElseThrow();
+        assertThat(updated, is(equalTo(true)));
+        assertThat(updatedEntity.getEmail(), is(equalTo("updated@fakemail.com")));
+        assertThat(updatedEntity.getRoles(), is(equalTo(List.of("ADMIN"))));
+        assertThat(updatedEntity.getVersion(), is(equalTo(1L)));
+    }
+}
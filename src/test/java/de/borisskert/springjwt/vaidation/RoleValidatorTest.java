@@ -0,0 +1,36 @@
+package de.borisskert.springjwt.vaidation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.validation.ConstraintValidator;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+class RoleValidatorTest {
+
+    private ConstraintValidator<Role, String> validator;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        validator = new RoleValidator();
+    }
+
+    @Test
+    public void shouldAllowKnownRoles() throws Exception {
+        assertThat(validator.isValid("ADMIN", null), is(equalTo(true)));
+        assertThat(validator.isValid("USER", null), is(equalTo(true)));
+    }
+
+    @Test
+    public void shouldNotAllowUnknownRole() throws Exception {
+        assertThat(validator.isValid("GUEST", null), is(equalTo(false)));
+    }
+
+    @Test
+    public void shouldNotAllowRoleInOtherCase() throws Exception {
+        assertThat(validator.isValid("admin", null), is(equalTo(false)));
+    }
+}